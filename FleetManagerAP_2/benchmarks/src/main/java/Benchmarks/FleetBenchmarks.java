@@ -0,0 +1,258 @@
+package Benchmarks;
+
+import Vehicles.Vehicle;
+import fleetManager.FleetManager;
+import fleetManager.FuelBatch;
+import fleetManager.JourneyResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// FleetManager hot paths: membership, queries, sorting and journeys
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmarks {
+    private static final int BATCH = 1000;
+    private static final String[] TYPES = {"car", "truck", "bus", "airplane", "cargoship"};
+
+    @State(Scope.Benchmark)
+    public static class Fleet {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        FleetManager fm;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            fm = Fleets.fleetOf(size);
+        }
+    }
+
+    // fleet stays at size: each invocation adds a batch of fresh vehicles and teardown takes them out again
+    @State(Scope.Benchmark)
+    public static class AddBatch {
+        final List<Vehicle> batch = new ArrayList<>(BATCH);
+        final FleetGenerator extra = new FleetGenerator(Fleets.SEED + 1);
+        int next;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            batch.clear();
+            for (int i = 0; i < BATCH; i++)
+                batch.add(extra.next("X" + next++));
+        }
+
+        @TearDown(Level.Invocation)
+        public void teardown(Fleet fleet) throws Exception {
+            for (Vehicle v : batch)
+                fleet.fm.removeVehicle(v.getId());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RemoveBatch {
+        final List<Vehicle> batch = new ArrayList<>(BATCH);
+        final FleetGenerator extra = new FleetGenerator(Fleets.SEED + 1);
+        int next;
+
+        @Setup(Level.Invocation)
+        public void setup(Fleet fleet) throws Exception {
+            batch.clear();
+            for (int i = 0; i < BATCH; i++) {
+                Vehicle v = extra.next("X" + next++);
+                batch.add(v);
+                fleet.fm.addVehicle(v);
+            }
+        }
+    }
+
+    // every invocation sorts a freshly shuffled fleet, sorting an already sorted one would flatter the result
+    @State(Scope.Benchmark)
+    public static class Shuffled {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        List<Vehicle> vehicles;
+        final Random shuffle = new Random(Fleets.SEED);
+        FleetManager fm;
+        final List<Vehicle> copy = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void generate() {
+            vehicles = Fleets.generate(size);
+        }
+
+        @Setup(Level.Invocation)
+        public void shuffle() throws Exception {
+            Collections.shuffle(vehicles, shuffle);
+            fm = null;
+            fm = Fleets.fleetOf(vehicles);
+            copy.clear();
+            copy.addAll(vehicles);
+        }
+    }
+
+    // journeys burn fuel, so every invocation starts from a freshly generated (identical) fleet.
+    // parallelism 0 means one worker per core
+    @State(Scope.Benchmark)
+    public static class Journeys {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        @Param({"1", "0"})
+        int parallelism;
+
+        FleetManager fm;
+        int workers;
+
+        @Setup(Level.Invocation)
+        public void setup() throws Exception {
+            fm = Fleets.fleetOf(size);
+            workers = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        }
+    }
+
+    // same fuel math as startAllJourneys, on the primitive arrays instead of the vehicles. a tiny distance
+    // keeps every vehicle moving so each tick does the same work
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        FuelBatch batch;
+        double[] distances;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            FleetManager fm = Fleets.fleetOf(size);
+            fm.enableColumnarStore();
+            batch = fm.fuelBatch();
+            distances = new double[batch.size()];
+            Arrays.fill(distances, 0.001);
+        }
+    }
+
+    // a batch that is written back moves the vehicles for real, so like Journeys every invocation starts
+    // from a fresh fleet. the columnar store is on for both sides, it is what fuelBatch() copies from
+    @State(Scope.Benchmark)
+    public static class Moves {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        FleetManager fm;
+        List<Vehicle> vehicles;
+
+        @Setup(Level.Invocation)
+        public void setup() throws Exception {
+            fm = Fleets.fleetOf(size);
+            fm.enableColumnarStore();
+            vehicles = fm.getFleet();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void addVehicle(Fleet fleet, AddBatch add) throws Exception {
+        for (Vehicle v : add.batch)
+            fleet.fm.addVehicle(v);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void removeVehicle(Fleet fleet, RemoveBatch remove) throws Exception {
+        for (Vehicle v : remove.batch)
+            fleet.fm.removeVehicle(v.getId());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void searchByType(Fleet fleet, Blackhole bh) {
+        for (String type : TYPES)
+            bh.consume(fleet.fm.searchByType(type));
+    }
+
+    @Benchmark
+    public String generateReport(Fleet fleet) {
+        return fleet.fm.generateReport();
+    }
+
+    @Benchmark
+    public FleetManager sortFleetByEfficiency(Shuffled s) {
+        s.fm.sortFleetByEfficiency();
+        return s.fm;
+    }
+
+    // baseline: what sortFleetByEfficiency used to do- a comparator sort calling calculateFuelEfficiency()
+    // on both sides of every comparison, then rebuilding the id map in the new order
+    @Benchmark
+    public Map<String, Vehicle> sortByEfficiencyComparator(Shuffled s) {
+        List<Vehicle> copy = s.copy;
+        copy.sort(Comparator.comparingDouble(Vehicle::calculateFuelEfficiency));
+        Map<String, Vehicle> byId = new LinkedHashMap<>(Math.max(16, copy.size() * 4 / 3 + 1));
+        for (Vehicle v : copy)
+            byId.put(v.getId(), v);
+        return byId;
+    }
+
+    @Benchmark
+    public List<JourneyResult> startAllJourneys(Journeys j) {
+        return j.fm.startAllJourneys(10, j.workers);
+    }
+
+    // with the Vector API module, so the tick runs on FuelBatchVectors
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public FuelBatch fuelBatchTick(Batch b) {
+        b.batch.tick(b.distances);
+        return b.batch;
+    }
+
+    // baseline for fuelBatchTick: no module, the same tick as FuelBatch's scalar loop
+    @Benchmark
+    public FuelBatch fuelBatchTickScalar(Batch b) {
+        b.batch.tick(b.distances);
+        return b.batch;
+    }
+
+    // take a batch, tick it once and write it back- the whole fleet really moves 10km
+    @Benchmark
+    public int fuelBatchApply(Moves m) {
+        FuelBatch batch = m.fm.fuelBatch();
+        batch.tick(10);
+        return batch.apply();
+    }
+
+    // baseline for fuelBatchApply: the same moves one vehicle at a time
+    @Benchmark
+    public int tryMoveEach(Moves m) throws Exception {
+        int moved = 0;
+        for (Vehicle v : m.vehicles)
+            moved += v.tryMove(10) ? 1 : 0;
+        return moved;
+    }
+}
@@ -0,0 +1,48 @@
+package Benchmarks;
+
+import CustomExceptions.InvalidOperationException;
+import Vehicles.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// seeded synthetic fleets so benchmark runs are reproducible- same seed and size, same fleet
+public class FleetGenerator {
+    private static final String[] MODELS = {"Honda", "Volvo", "Mercedes", "Boeing", "Maersk", "Toyota", "Scania", "Airbus"};
+
+    private final Random random;
+
+    public FleetGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<Vehicle> generate(int size) {
+        List<Vehicle> fleet = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            fleet.add(next("V" + i));
+        return fleet;
+    }
+
+    public Vehicle next(String id) {
+        String model = MODELS[random.nextInt(MODELS.length)];
+        // fuel and mileage are fractional like they are on a fleet that has been running for a while
+        double mileage = random.nextDouble() * 15000;
+        try {
+            return switch (VehicleType.fromTag((byte) random.nextInt(VehicleType.values().length))) {
+                case CAR -> new Car(id, model, 120 + random.nextInt(80), mileage, 4,
+                        random.nextDouble() * 60, 5, random.nextInt(6));
+                case TRUCK -> new Truck(id, model, 80 + random.nextInt(40), mileage, 6 + 2 * random.nextInt(4),
+                        random.nextDouble() * 400, 5000, random.nextInt(5001));
+                case BUS -> new Bus(id, model, 70 + random.nextInt(40), mileage, 6,
+                        random.nextDouble() * 200, 50, random.nextInt(51), 500, random.nextInt(501));
+                case AIRPLANE -> new Airplane(id, model, 700 + random.nextInt(250), mileage, 9000 + random.nextInt(4000),
+                        random.nextDouble() * 20000, 200, random.nextInt(201), 10000, random.nextInt(10001));
+                case CARGO_SHIP -> new CargoShip(id, model, 30 + random.nextInt(20), mileage, random.nextInt(4) == 0,
+                        50000, random.nextInt(50001), random.nextDouble() * 5000);
+            };
+        } catch (InvalidOperationException e) {
+            throw new IllegalStateException(e); // generated ids are never empty
+        }
+    }
+}
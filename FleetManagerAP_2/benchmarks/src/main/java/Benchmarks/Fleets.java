@@ -0,0 +1,43 @@
+package Benchmarks;
+
+import Vehicles.Vehicle;
+import fleetManager.FleetManager;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+// shared setup for the benchmark states. every fleet comes from FleetGenerator with a fixed seed, so two
+// runs of the same build measure the same work
+final class Fleets {
+    static final long SEED = 42;
+
+    private static final PrintStream CONSOLE = System.out;
+
+    private Fleets() {
+    }
+
+    static List<Vehicle> generate(int size) {
+        return new FleetGenerator(SEED).generate(size);
+    }
+
+    static FleetManager fleetOf(List<Vehicle> vehicles) throws Exception {
+        FleetManager fm = new FleetManager();
+        for (Vehicle v : vehicles)
+            fm.addVehicle(v);
+        return fm;
+    }
+
+    static FleetManager fleetOf(int size) throws Exception {
+        return fleetOf(generate(size));
+    }
+
+    // the fleet code prints a lot (saves, loads, maintenance), keep it out of the benchmark log
+    static void mute() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static void unmute() {
+        System.setOut(CONSOLE);
+    }
+}
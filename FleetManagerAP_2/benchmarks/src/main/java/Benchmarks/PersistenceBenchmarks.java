@@ -0,0 +1,119 @@
+package Benchmarks;
+
+import Persistence.FieldParser;
+import Persistence.Persistence;
+import Persistence.VehicleFactory;
+import Vehicles.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// CSV and binary snapshot save/load on the same synthetic fleet, plus the per line VehicleFactory cost
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmarks {
+    private static final int LINES = 10_000;
+
+    // both files are written once up front so the load benchmarks always have something to read
+    @State(Scope.Benchmark)
+    public static class Files {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        List<Vehicle> fleet;
+        final List<Vehicle> loaded = new ArrayList<>();
+        File csv;
+        File snapshot;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            Fleets.mute();
+            fleet = Fleets.generate(size);
+            csv = File.createTempFile("fleet-bench", ".csv");
+            snapshot = File.createTempFile("fleet-bench", ".snap");
+            Persistence.saveToFile(fleet, csv.getPath());
+            Persistence.saveSnapshot(fleet, snapshot.getPath());
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() {
+            csv.delete();
+            snapshot.delete();
+            Fleets.unmute();
+        }
+    }
+
+    // lines are prepared up front so only the factory itself is timed
+    @State(Scope.Benchmark)
+    public static class Lines {
+        final List<String[]> fields = new ArrayList<>(LINES);
+        final List<byte[]> raw = new ArrayList<>(LINES); // the way MappedCsvLoader hands them over
+        final int[] offsets = new int[64];
+
+        @Setup(Level.Trial)
+        public void setup() {
+            for (Vehicle v : Fleets.generate(LINES)) {
+                String line = v.toCSV();
+                fields.add(line.split(","));
+                raw.add(line.getBytes());
+            }
+        }
+    }
+
+    @Benchmark
+    public void saveToFile(Files f) {
+        Persistence.saveToFile(f.fleet, f.csv.getPath());
+    }
+
+    @Benchmark
+    public List<Vehicle> loadFromFile(Files f) {
+        Persistence.loadFromFile(f.loaded, f.csv.getPath());
+        return f.loaded;
+    }
+
+    @Benchmark
+    public void saveSnapshot(Files f) {
+        Persistence.saveSnapshot(f.fleet, f.snapshot.getPath());
+    }
+
+    @Benchmark
+    public List<Vehicle> loadSnapshot(Files f) {
+        Persistence.loadSnapshot(f.loaded, f.snapshot.getPath());
+        return f.loaded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void createVehicle(Lines l, Blackhole bh) throws Exception {
+        for (String[] line : l.fields)
+            bh.consume(VehicleFactory.createVehicle(line));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void createVehicleFromBytes(Lines l, Blackhole bh) throws Exception {
+        int[] offsets = l.offsets;
+        for (byte[] line : l.raw)
+            bh.consume(VehicleFactory.createVehicle(line, offsets, FieldParser.split(line, line.length, offsets)));
+    }
+}
@@ -0,0 +1,169 @@
+package Benchmarks;
+
+import Interfaces.VehicleEventSink;
+import Planning.CargoPlan;
+import Planning.CargoPlanner;
+import Planning.JourneyTimeEstimator;
+import Planning.JourneyTimeMatrix;
+import Planning.Shipment;
+import Simulation.Scenario;
+import Simulation.SimulationStats;
+import Vehicles.Vehicle;
+import fleetManager.FleetManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// cargo planning, journey time matrices and the discrete event simulator
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanningBenchmarks {
+
+    // as many shipments as vehicles, weights from 1 kg to 2 t. planning leaves the fleet untouched
+    @State(Scope.Benchmark)
+    public static class Cargo {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        @Param({"FIRST_FIT_DECREASING", "BEST_FIT_DECREASING"})
+        CargoPlanner.Strategy strategy;
+
+        FleetManager fm;
+        List<Shipment> shipments;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            fm = Fleets.fleetOf(size);
+            Random random = new Random(Fleets.SEED);
+            shipments = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                shipments.add(new Shipment("S" + i, 1 + random.nextInt(2000)));
+        }
+    }
+
+    // 64 routes per vehicle
+    @State(Scope.Benchmark)
+    public static class Routes {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        FleetManager fm;
+        List<Vehicle> vehicles;
+        final double[] distances = new double[64];
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            fm = Fleets.fleetOf(size);
+            vehicles = new ArrayList<>(fm.getFleet());
+            Random random = new Random(Fleets.SEED);
+            for (int i = 0; i < distances.length; i++)
+                distances[i] = 1 + random.nextInt(5000);
+        }
+    }
+
+    // a simulated day on a fresh copy of the fleet each invocation. parallelism 0 means one group per core,
+    // maintenance events are switched off while it runs
+    @State(Scope.Benchmark)
+    public static class Day {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        @Param({"1", "0"})
+        int parallelism;
+
+        final Scenario scenario;
+        FleetManager fm;
+        int workers;
+        VehicleEventSink sink;
+
+        public Day() {
+            try {
+                scenario = new Scenario(new double[]{12, 45, 160, 800}, 0.25, 0.5, 4, 20);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Setup(Level.Trial)
+        public void silence() {
+            sink = Vehicle.getEventSink();
+            Vehicle.setEventSink(null);
+            workers = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        }
+
+        @Setup(Level.Invocation)
+        public void setup() throws Exception {
+            fm = Fleets.fleetOf(size);
+        }
+
+        @TearDown(Level.Trial)
+        public void restore() {
+            Vehicle.setEventSink(sink);
+        }
+    }
+
+    // events handled per invocation, so the result can be read as events per second as well
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Events {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    @Benchmark
+    public CargoPlan planCargo(Cargo c) {
+        return c.fm.planCargo(c.shipments, c.strategy);
+    }
+
+    // baseline for the matrix: one estimateJourneyTime call per vehicle and route
+    @Benchmark
+    public double estimateJourneyTime(Routes r) {
+        double total = 0;
+        for (Vehicle v : r.vehicles) {
+            for (double d : r.distances)
+                total += v.estimateJourneyTime(d);
+        }
+        return total;
+    }
+
+    // a fresh estimator every time, so nothing comes from the cache
+    @Benchmark
+    public JourneyTimeMatrix journeyTimeMatrix(Routes r) {
+        return new JourneyTimeEstimator(0).estimate(r.vehicles, r.distances);
+    }
+
+    @Benchmark
+    public JourneyTimeMatrix journeyTimeMatrixCached(Routes r) {
+        return r.fm.estimateJourneyTimes(r.distances);
+    }
+
+    @Benchmark
+    public SimulationStats simulateDay(Day d, Events events) {
+        SimulationStats stats = d.fm.simulate(d.scenario, 24, d.workers);
+        events.events += stats.getEvents();
+        return stats;
+    }
+}
@@ -0,0 +1,103 @@
+package Benchmarks;
+
+import Interfaces.PassengerCarrier;
+import Reservations.Reservation;
+import Reservations.ReservationEngine;
+import Vehicles.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// seat bookings from several threads at once: a reservation taken and given back per operation, on any
+// vehicle with room or on one picked at random. nothing is confirmed, so the vehicles never change
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ReservationBenchmarks {
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"1000", "10000"})
+        int size;
+
+        ReservationEngine engine;
+        List<Vehicle> carriers;
+        // free seats per vehicle for the locked baseline
+        final Map<Vehicle, int[]> free = new IdentityHashMap<>();
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            engine = new ReservationEngine();
+            carriers = new ArrayList<>();
+            for (Vehicle v : Fleets.generate(size)) {
+                if (v instanceof PassengerCarrier p) {
+                    engine.register(v);
+                    carriers.add(v);
+                    free.put(v, new int[]{p.getPassengerCapacity() - p.getCurrentPassengers()});
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            engine.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Picks {
+        final Random random = new Random(Fleets.SEED);
+    }
+
+    @Benchmark
+    public boolean reserveAnyRelease(Engine e) throws Exception {
+        Reservation r = e.engine.reserveAny(2, TIMEOUT_MILLIS);
+        return r != null && e.engine.release(r);
+    }
+
+    @Benchmark
+    public boolean reserveRelease(Engine e, Picks p) throws Exception {
+        Vehicle v = e.carriers.get(p.random.nextInt(e.carriers.size()));
+        Reservation r = e.engine.reserve(v, 2, TIMEOUT_MILLIS);
+        return r != null && e.engine.release(r);
+    }
+
+    // baseline for reserveRelease: the same check and count under the vehicle's lock, no index, no
+    // reservation objects
+    @Benchmark
+    public boolean lockedReserveRelease(Engine e, Picks p) {
+        Vehicle v = e.carriers.get(p.random.nextInt(e.carriers.size()));
+        int[] seats = e.free.get(v);
+        synchronized (v) {
+            if (seats[0] < 2)
+                return false;
+            seats[0] -= 2;
+        }
+        synchronized (v) {
+            seats[0] += 2;
+        }
+        return true;
+    }
+}
@@ -5,4 +5,14 @@ public class InsufficientFuelException extends Exception {
 
       super(message);
     }
+
+    // no stack trace- running out of fuel is routine in fleet wide passes and the trace would cost far more
+    // than the check that failed
+    public static InsufficientFuelException stackless(String message) {
+        return new InsufficientFuelException(message, false);
+    }
+
+    private InsufficientFuelException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
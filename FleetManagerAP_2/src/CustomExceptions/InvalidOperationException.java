@@ -4,4 +4,13 @@ public class InvalidOperationException extends Exception {
     public InvalidOperationException(String message ){
         super(message);
     }
+
+    // no stack trace- for rejections in bulk paths (big imports, fleet wide commands) where only the message is shown
+    public static InvalidOperationException stackless(String message) {
+        return new InvalidOperationException(message, false);
+    }
+
+    private InvalidOperationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -4,4 +4,13 @@ public class OverloadException extends Exception {
     public OverloadException(String message) {
         super(message);
     }
+
+    // no stack trace- for bulk loading where running out of capacity is an expected outcome, not a bug
+    public static OverloadException stackless(String message) {
+        return new OverloadException(message, false);
+    }
+
+    private OverloadException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,134 @@
+package Events;
+
+import Interfaces.VehicleEventSink;
+import Vehicles.VehicleEvent;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// hands events to a background thread that formats them and writes them out in batches, so the vehicle
+// that moved only pays for a queue insert. when the queue is full the caller waits (nothing is dropped);
+// the writer thread never touches a vehicle so that can't deadlock. events after close() are dropped
+public class AsyncBatchingEventSink implements VehicleEventSink, Closeable {
+    private final BlockingQueue<VehicleEvent> queue;
+    private final Writer out;
+    private final int batchSize;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    // accepted/written let flush() wait until everything handed in so far is out
+    private long accepted;
+    private long written;
+    private IOException failure;
+
+    public AsyncBatchingEventSink(Writer out, int queueCapacity, int batchSize) {
+        if (queueCapacity < 1 || batchSize < 1)
+            throw new IllegalArgumentException("Queue capacity and batch size must be at least 1");
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.out = out;
+        this.batchSize = batchSize;
+        this.worker = new Thread(this::drain, "vehicle-event-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // to stdout, 64k queued events, up to 1024 lines per write
+    public AsyncBatchingEventSink() {
+        this(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16), 1 << 16, 1024);
+    }
+
+    @Override
+    public void accept(VehicleEvent event) {
+        if (closed)
+            return;
+        synchronized (this) {
+            accepted++;
+        }
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (this) {
+                accepted--;
+                notifyAll();
+            }
+        }
+    }
+
+    // blocks until every event accepted before the call has been written. rethrows a write failure
+    public synchronized void flush() throws IOException {
+        long target = accepted;
+        while (written < target && failure == null && worker.isAlive()) {
+            try {
+                wait(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    // writes out what is queued and stops the thread. the writer is flushed, not closed
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (failure != null)
+                throw failure;
+        }
+    }
+
+    private void drain() {
+        List<VehicleEvent> batch = new ArrayList<>(batchSize);
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            try {
+                VehicleEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty())
+                        return;
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                if (closed)
+                    return;
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            sb.setLength(0);
+            for (VehicleEvent e : batch)
+                sb.append(e.message()).append(System.lineSeparator());
+            try {
+                out.write(sb.toString());
+                out.flush();
+            } catch (IOException e) {
+                synchronized (this) {
+                    if (failure == null)
+                        failure = e;
+                }
+            }
+            synchronized (this) {
+                written += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+}
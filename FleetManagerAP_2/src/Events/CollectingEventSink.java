@@ -0,0 +1,39 @@
+package Events;
+
+import Interfaces.VehicleEventSink;
+import Vehicles.VehicleEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// keeps every event in memory, in arrival order- for tests, simulations and anything that wants to
+// inspect outcomes instead of reading the console
+public class CollectingEventSink implements VehicleEventSink {
+    private final List<VehicleEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void accept(VehicleEvent event) {
+        events.add(event);
+    }
+
+    public synchronized List<VehicleEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized int count(VehicleEvent.Kind kind) {
+        int n = 0;
+        for (VehicleEvent e : events) {
+            if (e.getKind() == kind)
+                n++;
+        }
+        return n;
+    }
+
+    public synchronized int size() {
+        return events.size();
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package Events;
+
+import Interfaces.VehicleEventSink;
+import Vehicles.VehicleEvent;
+
+// the default- prints every event's message straight away, same output as before events existed
+public class ConsoleEventSink implements VehicleEventSink {
+    public static final ConsoleEventSink INSTANCE = new ConsoleEventSink();
+
+    @Override
+    public void accept(VehicleEvent event) {
+        System.out.println(event.message());
+    }
+}
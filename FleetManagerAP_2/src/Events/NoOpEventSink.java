@@ -0,0 +1,18 @@
+package Events;
+
+import Interfaces.VehicleEventSink;
+import Vehicles.VehicleEvent;
+
+// drops everything- vehicles see isEnabled() == false and don't even create the events
+public class NoOpEventSink implements VehicleEventSink {
+    public static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    @Override
+    public void accept(VehicleEvent event) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -11,6 +11,31 @@ public interface FuelConsumable {
     //Returns current fuel level
     double getFuelLevel();
 
+    //tryConsumeFuel result when there isn't enough fuel- nothing was consumed. check with isInsufficient
+    double INSUFFICIENT_FUEL = Double.NaN;
+
+    //Reduces fuel based on efficiency; returns consumed amount, or INSUFFICIENT_FUEL instead of throwing.
+    //the fast path for fleet wide fuel accounting- a shortfall costs nothing. a NaN distance throws
+    //IllegalArgumentException before anything is consumed
+    double tryConsumeFuel(double distance);
+
     //Reduces fuel based on efficiency; re-turns consumed amount; throws InsufficientFuelException if not enough fuel
-    double consumeFuel(double distance) throws InsufficientFuelException;
+    default double consumeFuel(double distance) throws InsufficientFuelException {
+        double consumed = tryConsumeFuel(distance);
+        if (isInsufficient(consumed))
+            throw new InsufficientFuelException("Not enough fuel");
+        return consumed;
+    }
+
+    //same as consumeFuel for fleet wide passes that only report the message- the exception carries no stack trace
+    default double consumeFuelInBulk(double distance) throws InsufficientFuelException {
+        double consumed = tryConsumeFuel(distance);
+        if (isInsufficient(consumed))
+            throw InsufficientFuelException.stackless("Not enough fuel");
+        return consumed;
+    }
+
+    static boolean isInsufficient(double consumed) {
+        return Double.isNaN(consumed);
+    }
 }
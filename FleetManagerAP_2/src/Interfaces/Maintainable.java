@@ -1,9 +1,15 @@
 package Interfaces;
 
 public interface Maintainable {
+    // vehicles past this mileage need maintenance whether or not it was scheduled
+    double MILEAGE_THRESHOLD = 10000;
+
     void scheduleMaintenance();
 
     boolean needsMaintenance();
 
+    // true only while maintenance was explicitly scheduled and not yet performed, mileage not included
+    boolean isMaintenanceScheduled();
+
     void performMaintenance();
 }
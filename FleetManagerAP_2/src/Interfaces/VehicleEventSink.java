@@ -0,0 +1,15 @@
+package Interfaces;
+
+import Vehicles.VehicleEvent;
+
+// receives what vehicles used to print from move() and performMaintenance(), see Vehicle.setEventSink.
+// called while the vehicle's own lock is held, so implementations must not block on other vehicles
+public interface VehicleEventSink {
+
+    void accept(VehicleEvent event);
+
+    // false lets vehicles skip building the event at all
+    default boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package Interfaces;
+
+import Vehicles.Vehicle;
+
+// notified after a vehicle's state changes- FleetManager uses it to keep its indexes in step
+public interface VehicleListener {
+
+    enum Change {
+        MILEAGE,
+        FUEL,
+        CARGO,
+        PASSENGERS,
+        MAINTENANCE,
+        SPEED,
+        MODEL
+    }
+
+    // called while the vehicle's own lock is held, so implementations must not block on other vehicles
+    void vehicleChanged(Vehicle vehicle, Change change);
+}
@@ -1,10 +1,10 @@
 
-import Interfaces.FuelConsumable;
 import Vehicles.*;
 import fleetManager.FleetManager;
 import CustomExceptions.InvalidOperationException;
 import Persistence.Persistence;
 
+import java.util.ArrayList;
 import java.util.Scanner;
 import java.util.List;
 
@@ -112,10 +112,7 @@ public class Main {
                     case "4" -> {
                         System.out.print("Enter fuel amount to refuel all: ");
                         double fuel = Double.parseDouble(sc.nextLine());
-                        for (Vehicle veh : fleet.getFleet()) {
-                            if (veh instanceof FuelConsumable fc)
-                                fc.refuel(fuel);
-                        }
+                        fleet.refuelAll(fuel);
                         System.out.println("All refuel able vehicles refueled.");
                     }
 
@@ -136,7 +133,9 @@ public class Main {
                     case "8" -> {
                         System.out.print("Enter filename to load: ");
                         String loadFile = sc.nextLine().trim();
-                        Persistence.loadFromFile(fleet.getFleet(), loadFile);
+                        List<Vehicle> loaded = new ArrayList<>();
+                        if (Persistence.loadFromFile(loaded, loadFile))
+                            fleet.replaceFleet(loaded);
 
                     }
 
@@ -0,0 +1,290 @@
+package Persistence;
+
+import CustomExceptions.InvalidOperationException;
+import Interfaces.Maintainable;
+import Vehicles.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// compact binary alternative to the CSV format. layout (big endian):
+//
+//   header   int magic 'FLTS', short version, short reserved, int vehicleCount, int stringCount
+//   strings  stringCount x (unsigned short byteLength, UTF-8 bytes)- ids and models, each distinct string stored once
+//   records  vehicleCount x (byte type tag, byte flags, fixed width fields for that type). flags bit 0 is
+//            Maintainable.isMaintenanceScheduled() (version 1 files have no flags byte). then every record has
+//            int id, int model (string table indexes, -1 = null), double maxSpeed, double currentMileage
+//            then the same fields the type's CSV constructor takes, in the same order:
+//              Car        int numWheels, double fuelLevel, int passengerCapacity, int currentPassengers
+//              Truck      int numWheels, double fuelLevel, double cargoCapacity, double currentCargo
+//              Bus        int numWheels, double fuelLevel, int passengerCapacity, int currentPassengers,
+//                         double cargoCapacity, double currentCargo
+//              Airplane   double maxAltitude, double fuelLevel, int passengerCapacity, int currentPassengers,
+//                         double cargoCapacity, double currentCargo
+//              CargoShip  byte hasSail, double cargoCapacity, double currentCargo, double fuelLevel
+//
+// doubles are stored as raw IEEE bits so nothing is formatted or reparsed as text
+public class BinarySnapshot {
+    static final int MAGIC = 0x464C5453; // "FLTS"
+    static final short VERSION = 2;
+    static final int FLAG_MAINTENANCE_SCHEDULED = 1;
+
+    // bytes after the type tag and flags, indexed by VehicleType.tag()
+    private static final int COMMON_SIZE = 4 + 4 + 8 + 8;
+    private static final int[] RECORD_SIZE = {
+            COMMON_SIZE + 4 + 8 + 4 + 4,          // Car
+            COMMON_SIZE + 4 + 8 + 8 + 8,          // Truck
+            COMMON_SIZE + 4 + 8 + 4 + 4 + 8 + 8,  // Bus
+            COMMON_SIZE + 8 + 8 + 4 + 4 + 8 + 8,  // Airplane
+            COMMON_SIZE + 1 + 8 + 8 + 8           // CargoShip
+    };
+    private static final int MAX_RECORD_SIZE = 1 + 1 + COMMON_SIZE + 8 + 8 + 4 + 4 + 8 + 8;
+    private static final int MIN_RECORD_SIZE = Arrays.stream(RECORD_SIZE).min().getAsInt();
+    private static final int HEADER_SIZE = 16;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static void write(List<Vehicle> fleet, String filename) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        // the string table is written before the records, so a model renamed in between must still
+        // point at a table entry- each record uses the model seen here
+        String[] models = new String[fleet.size()];
+        int i = 0;
+        for (Vehicle v : fleet) {
+            intern(v.getId(), stringIndex, strings);
+            models[i] = v.getModel();
+            intern(models[i++], stringIndex, strings);
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buf.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(fleet.size()).putInt(strings.size());
+
+            for (byte[] s : strings) {
+                ensureRoom(channel, buf, 2);
+                buf.putShort((short) s.length);
+                int off = 0;
+                while (off < s.length) {
+                    if (!buf.hasRemaining())
+                        drain(channel, buf);
+                    int n = Math.min(buf.remaining(), s.length - off);
+                    buf.put(s, off, n);
+                    off += n;
+                }
+            }
+
+            i = 0;
+            for (Vehicle v : fleet) {
+                ensureRoom(channel, buf, MAX_RECORD_SIZE);
+                // the vehicle is locked while its fields are read, like CsvWriter does
+                synchronized (v) {
+                    putRecord(buf, v, indexOf(models[i++], stringIndex), stringIndex);
+                }
+            }
+            drain(channel, buf);
+        }
+    }
+
+    public static void read(List<Vehicle> fleet, String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buf.flip();
+
+            fill(channel, buf, HEADER_SIZE);
+            if (buf.getInt() != MAGIC)
+                throw new IOException("Not a fleet snapshot: " + filename);
+            short version = buf.getShort();
+            if (version < 1 || version > VERSION)
+                throw new IOException("Unsupported snapshot version " + version);
+            buf.getShort();
+            int vehicleCount = buf.getInt();
+            int stringCount = buf.getInt();
+            // the counts size the arrays below, so they must fit in the file before anything is allocated:
+            // every string takes at least its length prefix, every record at least its tag, flags and the
+            // smallest type's fields
+            if (vehicleCount < 0 || stringCount < 0)
+                throw new IOException("Corrupt snapshot: negative count");
+            long minRecord = (version >= 2 ? 2 : 1) + MIN_RECORD_SIZE;
+            if (2L * stringCount + minRecord * vehicleCount > channel.size() - HEADER_SIZE)
+                throw new IOException("Corrupt snapshot: " + vehicleCount + " vehicles and " + stringCount
+                        + " strings don't fit in " + channel.size() + " bytes");
+
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < stringCount; i++) {
+                fill(channel, buf, 2);
+                int len = Short.toUnsignedInt(buf.getShort());
+                if (len > scratch.length)
+                    scratch = new byte[Math.max(len, scratch.length * 2)];
+                int off = 0;
+                while (off < len) {
+                    if (!buf.hasRemaining())
+                        fill(channel, buf, 1);
+                    int n = Math.min(buf.remaining(), len - off);
+                    buf.get(scratch, off, n);
+                    off += n;
+                }
+                strings[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+            }
+
+            List<Vehicle> loaded = new ArrayList<>(vehicleCount);
+            for (int i = 0; i < vehicleCount; i++) {
+                fill(channel, buf, version >= 2 ? 2 : 1);
+                byte tag = buf.get();
+                if (tag < 0 || tag >= RECORD_SIZE.length)
+                    throw new IOException("Corrupt snapshot: unknown type tag " + tag);
+                byte flags = version >= 2 ? buf.get() : 0;
+                fill(channel, buf, RECORD_SIZE[tag]);
+                Vehicle v = getRecord(buf, VehicleType.fromTag(tag), strings);
+                if ((flags & FLAG_MAINTENANCE_SCHEDULED) != 0 && v instanceof Maintainable m)
+                    m.scheduleMaintenance();
+                loaded.add(v);
+            }
+
+            fleet.clear();
+            for (Vehicle v : loaded) {
+                try {
+                    fleet.add(v);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt snapshot: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void putRecord(ByteBuffer buf, Vehicle v, int model, Map<String, Integer> stringIndex) {
+        VehicleType type = v.getType();
+        boolean scheduled = v instanceof Maintainable m && m.isMaintenanceScheduled();
+        buf.put(type.tag())
+                .put((byte) (scheduled ? FLAG_MAINTENANCE_SCHEDULED : 0))
+                .putInt(indexOf(v.getId(), stringIndex))
+                .putInt(model)
+                .putDouble(v.getMaxSpeed())
+                .putDouble(v.getCurrentMileage());
+
+        switch (type) {
+            case CAR -> {
+                Car c = (Car) v;
+                buf.putInt(c.getNumWheels())
+                        .putDouble(c.getFuelLevel())
+                        .putInt(c.getPassengerCapacity())
+                        .putInt(c.getCurrentPassengers());
+            }
+            case TRUCK -> {
+                Truck t = (Truck) v;
+                buf.putInt(t.getNumWheels())
+                        .putDouble(t.getFuelLevel())
+                        .putDouble(t.getCargoCapacity())
+                        .putDouble(t.getCurrentCargo());
+            }
+            case BUS -> {
+                Bus b = (Bus) v;
+                buf.putInt(b.getNumWheels())
+                        .putDouble(b.getFuelLevel())
+                        .putInt(b.getPassengerCapacity())
+                        .putInt(b.getCurrentPassengers())
+                        .putDouble(b.getCargoCapacity())
+                        .putDouble(b.getCurrentCargo());
+            }
+            case AIRPLANE -> {
+                Airplane a = (Airplane) v;
+                buf.putDouble(a.getMaxAltitude())
+                        .putDouble(a.getFuelLevel())
+                        .putInt(a.getPassengerCapacity())
+                        .putInt(a.getCurrentPassengers())
+                        .putDouble(a.getCargoCapacity())
+                        .putDouble(a.getCurrentCargo());
+            }
+            case CARGO_SHIP -> {
+                CargoShip s = (CargoShip) v;
+                buf.put((byte) (s.hasSail() ? 1 : 0))
+                        .putDouble(s.getCargoCapacity())
+                        .putDouble(s.getCurrentCargo())
+                        .putDouble(s.getFuelLevel());
+            }
+        }
+    }
+
+    private static Vehicle getRecord(ByteBuffer buf, VehicleType type, String[] strings) throws IOException {
+        String id = stringAt(buf.getInt(), strings);
+        String model = stringAt(buf.getInt(), strings);
+        double maxSpeed = buf.getDouble();
+        double mileage = buf.getDouble();
+
+        try {
+            return switch (type) {
+                case CAR -> new Car(id, model, maxSpeed, mileage,
+                        buf.getInt(), buf.getDouble(), buf.getInt(), buf.getInt());
+                case TRUCK -> new Truck(id, model, maxSpeed, mileage,
+                        buf.getInt(), buf.getDouble(), buf.getDouble(), buf.getDouble());
+                case BUS -> new Bus(id, model, maxSpeed, mileage,
+                        buf.getInt(), buf.getDouble(), buf.getInt(), buf.getInt(), buf.getDouble(), buf.getDouble());
+                case AIRPLANE -> new Airplane(id, model, maxSpeed, mileage,
+                        buf.getDouble(), buf.getDouble(), buf.getInt(), buf.getInt(), buf.getDouble(), buf.getDouble());
+                case CARGO_SHIP -> new CargoShip(id, model, maxSpeed, mileage,
+                        buf.get() != 0, buf.getDouble(), buf.getDouble(), buf.getDouble());
+            };
+        } catch (InvalidOperationException e) {
+            throw new IOException("Corrupt snapshot: " + e.getMessage());
+        }
+    }
+
+    private static void intern(String s, Map<String, Integer> stringIndex, List<byte[]> strings) throws IOException {
+        if (s != null && !stringIndex.containsKey(s)) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF)
+                throw new IOException("String too long for snapshot: " + s.substring(0, 20) + "...");
+            stringIndex.put(s, strings.size());
+            strings.add(bytes);
+        }
+    }
+
+    private static int indexOf(String s, Map<String, Integer> stringIndex) {
+        return s == null ? -1 : stringIndex.get(s);
+    }
+
+    private static String stringAt(int index, String[] strings) throws IOException {
+        if (index == -1)
+            return null;
+        if (index < 0 || index >= strings.length)
+            throw new IOException("Corrupt snapshot: bad string index " + index);
+        return strings[index];
+    }
+
+    // write side: flush the buffer to the channel if fewer than n bytes are free
+    private static void ensureRoom(FileChannel channel, ByteBuffer buf, int n) throws IOException {
+        if (buf.remaining() < n)
+            drain(channel, buf);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining())
+            channel.write(buf);
+        buf.clear();
+    }
+
+    // read side: make sure at least n bytes are buffered
+    private static void fill(FileChannel channel, ByteBuffer buf, int n) throws IOException {
+        if (buf.remaining() >= n)
+            return;
+        buf.compact();
+        while (buf.position() < n) {
+            if (channel.read(buf) < 0)
+                throw new EOFException("Snapshot is truncated");
+        }
+        buf.flip();
+    }
+}
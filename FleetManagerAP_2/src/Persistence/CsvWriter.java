@@ -0,0 +1,263 @@
+package Persistence;
+
+import Vehicles.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// writes the CSV format field by field into one reusable buffer instead of building a toCSV() string per
+// vehicle and re-encoding it. output is byte for byte what PrintWriter(FileWriter).println(v.toCSV()) gives:
+// same fields, Double.toString formatting, default charset, platform line separator.
+// the common doubles (whole numbers and up to 3 decimals, like every value the app itself produces) are
+// formatted without allocating; anything else goes through Double.toString
+public class CsvWriter implements Closeable {
+    static final int BUFFER_SIZE = 1 << 16;
+    // longest a record can get without the string fields: 11 fields, doubles can take 24 chars
+    private static final int MAX_NUMERIC_RECORD = 11 * 26;
+
+    // the charset FileWriter encodes with
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(CHARSET);
+    private static final byte[] NULL = "null".getBytes(CHARSET);
+    private static final byte[] TRUE = "true".getBytes(CHARSET);
+    private static final byte[] FALSE = "false".getBytes(CHARSET);
+    private static final byte[][] LABELS = new byte[VehicleType.values().length][];
+
+    static {
+        for (VehicleType t : VehicleType.values())
+            LABELS[t.tag()] = t.getLabel().getBytes(CHARSET);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+
+    public CsvWriter(String filename) throws IOException {
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    public static void write(Iterable<Vehicle> fleet, String filename) throws IOException {
+        try (CsvWriter writer = new CsvWriter(filename)) {
+            for (Vehicle v : fleet)
+                writer.write(v);
+        }
+    }
+
+    // one line, same as v.toCSV() plus a line separator. the vehicle is locked while its fields are read,
+    // like toCSV() does
+    public void write(Vehicle v) throws IOException {
+        synchronized (v) {
+            VehicleType type = v.getType();
+            putBytes(LABELS[type.tag()]);
+            comma();
+            putString(v.getId());
+            comma();
+            putString(v.getModel());
+            ensureRoom(MAX_NUMERIC_RECORD + LINE_SEPARATOR.length);
+            comma();
+            putDouble(v.getMaxSpeed());
+            comma();
+            putDouble(v.getCurrentMileage());
+
+            switch (type) {
+                case CAR -> {
+                    Car c = (Car) v;
+                    comma();
+                    putLong(c.getNumWheels());
+                    comma();
+                    putDouble(c.getFuelLevel());
+                    comma();
+                    putLong(c.getPassengerCapacity());
+                    comma();
+                    putLong(c.getCurrentPassengers());
+                }
+                case TRUCK -> {
+                    Truck t = (Truck) v;
+                    comma();
+                    putLong(t.getNumWheels());
+                    comma();
+                    putDouble(t.getFuelLevel());
+                    comma();
+                    putDouble(t.getCargoCapacity());
+                    comma();
+                    putDouble(t.getCurrentCargo());
+                }
+                case BUS -> {
+                    Bus b = (Bus) v;
+                    comma();
+                    putLong(b.getNumWheels());
+                    comma();
+                    putDouble(b.getFuelLevel());
+                    comma();
+                    putLong(b.getPassengerCapacity());
+                    comma();
+                    putLong(b.getCurrentPassengers());
+                    comma();
+                    putDouble(b.getCargoCapacity());
+                    comma();
+                    putDouble(b.getCurrentCargo());
+                }
+                case AIRPLANE -> {
+                    Airplane a = (Airplane) v;
+                    comma();
+                    putDouble(a.getMaxAltitude());
+                    comma();
+                    putDouble(a.getFuelLevel());
+                    comma();
+                    putLong(a.getPassengerCapacity());
+                    comma();
+                    putLong(a.getCurrentPassengers());
+                    comma();
+                    putDouble(a.getCargoCapacity());
+                    comma();
+                    putDouble(a.getCurrentCargo());
+                }
+                case CARGO_SHIP -> {
+                    CargoShip s = (CargoShip) v;
+                    comma();
+                    putBytes(s.hasSail() ? TRUE : FALSE);
+                    comma();
+                    putDouble(s.getCargoCapacity());
+                    comma();
+                    putDouble(s.getCurrentCargo());
+                    comma();
+                    putDouble(s.getFuelLevel());
+                }
+            }
+            putBytes(LINE_SEPARATOR);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // the separators after the type and the id come before any ensureRoom, the id can end right at the limit
+    private void comma() throws IOException {
+        if (!buf.hasRemaining())
+            drain();
+        buf.put((byte) ',');
+    }
+
+    // ASCII goes straight in, anything else is encoded as a whole like the Writer would
+    private void putString(String s) throws IOException {
+        if (s == null) {
+            putBytes(NULL);
+            return;
+        }
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            if (s.charAt(i) >= 0x80) {
+                putBytes(s.getBytes(CHARSET));
+                return;
+            }
+        }
+        ensureRoom(n);
+        if (n > buf.remaining()) {
+            putBytes(s.getBytes(CHARSET));
+            return;
+        }
+        for (int i = 0; i < n; i++)
+            buf.put((byte) s.charAt(i));
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        int off = 0;
+        while (off < bytes.length) {
+            if (!buf.hasRemaining())
+                drain();
+            int n = Math.min(buf.remaining(), bytes.length - off);
+            buf.put(bytes, off, n);
+            off += n;
+        }
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                putAscii(Long.toString(value));
+                return;
+            }
+            buf.put((byte) '-');
+            value = -value;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (n > 0)
+            buf.put(digits[--n]);
+    }
+
+    private void putDouble(double value) {
+        if (!appendShortDouble(value))
+            putAscii(Double.toString(value));
+    }
+
+    // Double.toString for 0.0 and for values in [1e-3, 1e7) that round trip through a decimal with at most
+    // 3 fractional digits. below 1e7 doubles are far closer together than 0.001, so that decimal is the
+    // shortest one mapping to the value and Double.toString prints exactly it: integer part, '.', the
+    // fraction without trailing zeros but at least one digit
+    private boolean appendShortDouble(double value) {
+        if (value == 0) {
+            if (Double.doubleToRawLongBits(value) != 0)
+                return false; // -0.0
+            buf.put((byte) '0').put((byte) '.').put((byte) '0');
+            return true;
+        }
+        double a = Math.abs(value);
+        if (!(a >= 1e-3 && a < 1e7))
+            return false;
+        long m = Math.round(a * 1000);
+        if (m / 1000.0 != a)
+            return false;
+
+        if (value < 0)
+            buf.put((byte) '-');
+        putLong(m / 1000);
+        buf.put((byte) '.');
+        int frac = (int) (m % 1000);
+        if (frac == 0) {
+            buf.put((byte) '0');
+            return true;
+        }
+        int width = 3;
+        while (frac % 10 == 0) {
+            frac /= 10;
+            width--;
+        }
+        for (int div = width == 3 ? 100 : width == 2 ? 10 : 1; div > 0; div /= 10)
+            buf.put((byte) ('0' + frac / div % 10));
+        return true;
+    }
+
+    // rare path (Double.toString, Long.MIN_VALUE)- these are always ASCII
+    private void putAscii(String s) {
+        for (int i = 0; i < s.length(); i++)
+            buf.put((byte) s.charAt(i));
+    }
+
+    private void ensureRoom(int n) throws IOException {
+        if (buf.remaining() < n)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining())
+            channel.write(buf);
+        buf.clear();
+    }
+}
@@ -0,0 +1,197 @@
+package Persistence;
+
+import java.nio.charset.Charset;
+
+// reads CSV fields straight out of a line (bytes from a mapped file, or any CharSequence) without cutting
+// it into substrings first. plain decimals like the ones the app writes are parsed in place; anything
+// else that could still be a number (hex, whitespace, huge exponents, NaN...) goes to Double.parseDouble,
+// so every field parses to exactly what Double.parseDouble would give. empty fields and fields that are
+// not numbers give the caller's default, without throwing
+public class FieldParser {
+
+    // the charset the CSV files are read and written in
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    // 10^0..10^22 are exact doubles and so is any mantissa below 2^53: one multiply or divide of two exact
+    // values is correctly rounded, which is what makes the fast path give Double.parseDouble's answer
+    private static final double[] POW10 = new double[23];
+    private static final long MAX_MANTISSA = (1L << 53) - 1;
+
+    static {
+        double p = 1;
+        for (int i = 0; i < POW10.length; i++) {
+            POW10[i] = p;
+            p *= 10;
+        }
+    }
+
+    // field boundaries of line[0, len) the way String.split(",") cuts it: field i is
+    // [offsets[i], offsets[i + 1] - 1). trailing empty fields are dropped and a line with no commas is a
+    // single field. returns the number of fields; offsets needs room for len + 2 entries at most
+    public static int split(byte[] line, int len, int[] offsets) {
+        int count = 0;
+        offsets[0] = 0;
+        for (int i = 0; i < len; i++) {
+            if (line[i] == ',')
+                offsets[++count] = i + 1;
+        }
+        offsets[++count] = len + 1;
+        if (count == 1)
+            return 1;
+        while (count > 0 && offsets[count] - offsets[count - 1] == 1)
+            count--;
+        return count;
+    }
+
+    public static String parseString(byte[] line, int from, int to) {
+        return new String(line, from, to - from, CHARSET);
+    }
+
+    // Boolean.parseBoolean, except that an empty field gives the default
+    public static boolean parseBoolean(byte[] line, int from, int to, boolean defaultValue) {
+        if (from >= to)
+            return defaultValue;
+        return to - from == 4
+                && (line[from] | 0x20) == 't' && (line[from + 1] | 0x20) == 'r'
+                && (line[from + 2] | 0x20) == 'u' && (line[from + 3] | 0x20) == 'e';
+    }
+
+    public static double parseDouble(byte[] line, int from, int to, double defaultValue) {
+        return parseDouble(line, null, from, to, defaultValue);
+    }
+
+    public static double parseDouble(CharSequence line, int from, int to, double defaultValue) {
+        return parseDouble(null, line, from, to, defaultValue);
+    }
+
+    // integer fields are allowed to look like doubles ("15.0"), the value is cast like (int) Double.parseDouble
+    // would: truncated, out of range saturates, NaN is 0
+    public static int parseInt(byte[] line, int from, int to, int defaultValue) {
+        return parseInt(line, null, from, to, defaultValue);
+    }
+
+    public static int parseInt(CharSequence line, int from, int to, int defaultValue) {
+        return parseInt(null, line, from, to, defaultValue);
+    }
+
+    // the parsers behind both kinds of line: exactly one of bytes and chars is set, at() and text() read
+    // whichever it is. the branch is the same for a whole call, so it costs next to nothing
+    private static double parseDouble(byte[] bytes, CharSequence chars, int from, int to, double defaultValue) {
+        if (from >= to)
+            return defaultValue;
+        int i = from;
+        boolean negative = at(bytes, chars, i) == '-';
+        if (negative || at(bytes, chars, i) == '+')
+            i++;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < to; i++) {
+            int c = at(bytes, chars, i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa > MAX_MANTISSA)
+                    return parseDoubleSlow(text(bytes, chars, from, to), defaultValue);
+                digits++;
+                if (point)
+                    scale++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        int exponent = 0;
+        if (i < to && digits > 0 && (at(bytes, chars, i) == 'E' || at(bytes, chars, i) == 'e') && to - i <= 5) {
+            i++;
+            boolean negativeExponent = i < to && at(bytes, chars, i) == '-';
+            if (i < to && (at(bytes, chars, i) == '-' || at(bytes, chars, i) == '+'))
+                i++;
+            int start = i;
+            for (; i < to && at(bytes, chars, i) >= '0' && at(bytes, chars, i) <= '9'; i++)
+                exponent = exponent * 10 + (at(bytes, chars, i) - '0');
+            if (i == start)
+                return parseDoubleSlow(text(bytes, chars, from, to), defaultValue);
+            if (negativeExponent)
+                exponent = -exponent;
+        }
+        if (i < to || digits == 0)
+            return parseDoubleSlow(text(bytes, chars, from, to), defaultValue);
+        double value = exact(mantissa, exponent - scale);
+        if (Double.isNaN(value))
+            return parseDoubleSlow(text(bytes, chars, from, to), defaultValue);
+        return negative ? -value : value;
+    }
+
+    private static int parseInt(byte[] bytes, CharSequence chars, int from, int to, int defaultValue) {
+        int sign = from < to ? at(bytes, chars, from) : 0;
+        int digitsFrom = sign == '-' || sign == '+' ? from + 1 : from;
+        if (digitsFrom < to && to - digitsFrom <= 18) {
+            long value = 0;
+            int i = digitsFrom;
+            for (; i < to && at(bytes, chars, i) >= '0' && at(bytes, chars, i) <= '9'; i++)
+                value = value * 10 + (at(bytes, chars, i) - '0');
+            if (i == to)
+                return saturate(sign == '-' ? -value : value);
+        }
+        double d = parseDouble(bytes, chars, from, to, Double.NaN);
+        if (Double.isNaN(d))
+            return from >= to ? defaultValue : parseIntSlow(text(bytes, chars, from, to), defaultValue);
+        return (int) d;
+    }
+
+    private static int at(byte[] bytes, CharSequence chars, int i) {
+        return bytes != null ? bytes[i] : chars.charAt(i);
+    }
+
+    private static String text(byte[] bytes, CharSequence chars, int from, int to) {
+        return bytes != null ? parseString(bytes, from, to) : chars.subSequence(from, to).toString();
+    }
+
+    // mantissa * 10^exponent when both are exact doubles, NaN when the fast path can't promise that
+    private static double exact(long mantissa, int exponent) {
+        if (mantissa == 0)
+            return 0.0;
+        if (exponent >= 0 && exponent < POW10.length)
+            return mantissa * POW10[exponent];
+        if (exponent < 0 && -exponent < POW10.length)
+            return mantissa / POW10[-exponent];
+        return Double.NaN;
+    }
+
+    private static int saturate(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    private static double parseDoubleSlow(String s, double defaultValue) {
+        if (!mayBeNumber(s))
+            return defaultValue;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static int parseIntSlow(String s, int defaultValue) {
+        if (!mayBeNumber(s))
+            return defaultValue;
+        try {
+            return (int) Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // Double.parseDouble only accepts text with a digit in it or one of its two words, everything else
+    // (letters, "-", "N/A"...) can go to the default without building an exception
+    private static boolean mayBeNumber(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9')
+                return true;
+        }
+        return s.contains("NaN") || s.contains("Infinity");
+    }
+}
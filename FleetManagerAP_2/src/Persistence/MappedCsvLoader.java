@@ -0,0 +1,171 @@
+package Persistence;
+
+import Vehicles.Vehicle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// loader for large fleet exports: the file is memory mapped in line aligned chunks, the chunks are
+// parsed in parallel straight from the mapped bytes and the results are merged back in file order.
+// produces the same fleet, messages and result as Persistence.loadFromFile on the same input
+public class MappedCsvLoader {
+
+    // small enough that one mapping never gets near the 2GB MappedByteBuffer limit
+    static final long CHUNK_SIZE = 16L << 20;
+
+    // the charset FileReader decodes with, so both loaders see the same text. splitting the raw bytes
+    // on ',' is safe because the default charsets are all ASCII compatible
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    public static boolean load(List<Vehicle> fleet, String filename) {
+        File file = new File(filename);
+
+        if (!file.exists()) {
+            System.out.println("Error: File not found: " + filename);
+            System.out.println("Current working directory: " + System.getProperty("user.dir"));
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, CHUNK_SIZE);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            for (int i = 0; i < chunks.length; i++)
+                chunks[i] = new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]));
+
+            IntStream.range(0, chunks.length).parallel().forEach(i -> chunks[i].parse());
+
+            fleet.clear();
+            for (Chunk chunk : chunks)
+                chunk.mergeInto(fleet);
+            System.out.println("Fleet loaded successfully from " + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Error loading fleet: " + e.getMessage());
+        }
+        return true;
+    }
+
+    // chunk i is [bounds[i], bounds[i + 1]), every boundary sits just after a '\n'
+    static long[] chunkBounds(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkSize;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = nextLineStart(channel, end, size, probe);
+            }
+            bounds.add(end);
+            start = end;
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = bounds.get(i);
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long pos, long size, ByteBuffer probe) throws IOException {
+        while (pos < size) {
+            probe.clear();
+            int n = channel.read(probe, pos);
+            if (n <= 0)
+                break;
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n')
+                    return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    // one mapped region of the file plus what parsing it produced, in file order
+    private static final class Chunk {
+        private final MappedByteBuffer buffer;
+        private final List<Vehicle> vehicles = new ArrayList<>();  // null where the line failed to parse
+        private final Map<Integer, String> errors = new HashMap<>(); // record index -> reason, failures only
+        private int[] spans = new int[64];                          // start/end of each line inside the chunk
+
+        Chunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        // line terminators are the ones BufferedReader.readLine accepts: \n, \r and \r\n
+        void parse() {
+            int limit = buffer.limit();
+            byte[] line = new byte[256];
+            int[] offsets = new int[line.length + 2];
+            int pos = 0;
+            while (pos < limit) {
+                int start = pos;
+                int len = 0;
+                while (pos < limit) {
+                    byte b = buffer.get(pos);
+                    if (b == '\n' || b == '\r')
+                        break;
+                    if (len == line.length)
+                        line = Arrays.copyOf(line, len * 2);
+                    line[len++] = b;
+                    pos++;
+                }
+                if (offsets.length < line.length + 2)
+                    offsets = new int[line.length + 2];
+                int end = pos;
+                if (pos < limit) {
+                    byte terminator = buffer.get(pos++);
+                    if (terminator == '\r' && pos < limit && buffer.get(pos) == '\n')
+                        pos++;
+                }
+                record(line, len, offsets, start, end);
+            }
+        }
+
+        private void record(byte[] line, int len, int[] offsets, int start, int end) {
+            int index = vehicles.size();
+            if (2 * index + 2 > spans.length)
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            spans[2 * index] = start;
+            spans[2 * index + 1] = end;
+            try {
+                vehicles.add(VehicleFactory.createVehicle(line, offsets, FieldParser.split(line, len, offsets)));
+            } catch (Exception e) {
+                vehicles.add(null);
+                errors.put(index, e.getMessage());
+            }
+        }
+
+        void mergeInto(List<Vehicle> fleet) {
+            for (int i = 0; i < vehicles.size(); i++) {
+                Vehicle v = vehicles.get(i);
+                if (v == null)
+                    skipped(lineAt(i), errors.get(i));
+                else
+                    fleet.add(v);
+            }
+        }
+
+        private String lineAt(int i) {
+            byte[] bytes = new byte[spans[2 * i + 1] - spans[2 * i]];
+            buffer.get(spans[2 * i], bytes);
+            return new String(bytes, CHARSET);
+        }
+
+        private static void skipped(String line, String reason) {
+            System.out.println("Skipping invalid vehicle data: " + line + ". Reason: " + reason);
+        }
+    }
+}
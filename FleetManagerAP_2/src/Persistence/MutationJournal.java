@@ -0,0 +1,379 @@
+package Persistence;
+
+import Interfaces.Maintainable;
+import Vehicles.Vehicle;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// append-only log of fleet mutations on top of a BinarySnapshot, so saving costs O(changes) instead of
+// rewriting the whole fleet. one text line per record (UTF-8):
+//
+//   A,<flags>,<csv>   vehicle added
+//   U,<flags>,<csv>   vehicle changed (moved, refueled, loaded, boarded, serviced...)
+//   R,<id>            vehicle removed
+//
+// <csv> is the vehicle's full toCSV() state at the time of the change and flags bit 0 is
+// Maintainable.isMaintenanceScheduled(), so replaying a record twice or on top of a newer snapshot
+// is harmless. records are buffered and written as a group on commit(), or by a background writer
+// thread once batchSize of them are waiting- recording a change never does I/O itself.
+// recovery = last snapshot + the rotated journal (if a compaction was interrupted) + the journal
+public class MutationJournal implements Closeable {
+
+    public enum FsyncPolicy {
+        NEVER,      // leave flushing to the OS- fastest, a power loss can lose committed records
+        ON_COMMIT,  // force the file to disk on every group commit
+        INTERVAL    // force on the first commit after fsyncIntervalMillis has passed
+    }
+
+    private static final int FLAG_MAINTENANCE_SCHEDULED = 1;
+
+    private final Path journalPath;
+    private final Path rotatedPath;
+    private final Path snapshotPath;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final int batchSize;
+    private final long compactionThreshold;
+
+    // records not yet written. an update to a vehicle that already has a pending record replaces it
+    // in place, so a busy vehicle costs one record per commit however often it changed
+    private final List<String> pending = new ArrayList<>();
+    private final Map<String, Integer> pendingById = new HashMap<>();
+
+    // lock order: ioLock, then this. the record methods run inside vehicle callbacks (vehicle lock held),
+    // so neither lock is ever held while reading a vehicle
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private FileChannel channel;
+    private long lastFsync;
+    private volatile Supplier<List<Vehicle>> fleet;
+
+    // full batches are written here, off the mutation path. a failed background write leaves its records
+    // pending for the next commit() and stops further background writes until a write succeeds again
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journal-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private boolean writeQueued;
+    private boolean writerStalled;
+
+    // set when the file may no longer hold what was written to it (a failed fsync, or a failed write that
+    // couldn't be cut back off). nothing is written after that and every commit() fails
+    private volatile IOException broken;
+
+    public MutationJournal(String journalFile, String snapshotFile, FsyncPolicy fsyncPolicy,
+                           long fsyncIntervalMillis, int batchSize, long compactionThreshold) throws IOException {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        this.journalPath = Path.of(journalFile);
+        this.rotatedPath = rotated(journalPath);
+        this.snapshotPath = Path.of(snapshotFile);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.batchSize = batchSize;
+        this.compactionThreshold = compactionThreshold;
+        this.channel = openJournal();
+        this.lastFsync = System.currentTimeMillis();
+    }
+
+    // group commits of 256 records, fsync on commit, compact once the journal passes 8MB
+    public MutationJournal(String journalFile, String snapshotFile) throws IOException {
+        this(journalFile, snapshotFile, FsyncPolicy.ON_COMMIT, 0, 256, 8L << 20);
+    }
+
+    // starts journaling the fleet that fleet hands out (a copy of it each time it is asked): writes a fresh
+    // snapshot of it and empties the journal. recover() first if the files may hold state that isn't in
+    // the fleet yet
+    public void bind(Supplier<List<Vehicle>> fleet) throws IOException {
+        this.fleet = fleet;
+        compact();
+    }
+
+    public void recordAdd(Vehicle v) {
+        append(v.getId(), "A," + state(v), false);
+    }
+
+    public void recordUpdate(Vehicle v) {
+        append(v.getId(), "U," + state(v), true);
+    }
+
+    public void recordRemove(Vehicle v) {
+        append(v.getId(), "R," + v.getId(), false);
+    }
+
+    // runs inside vehicle callbacks, often with the registry write lock held too, so it only queues the
+    // record and leaves the writing to the writer thread or the next commit()
+    private void append(String id, String record, boolean coalesce) {
+        synchronized (this) {
+            Integer at = coalesce ? pendingById.get(id) : null;
+            if (at != null) {
+                // keep the original op- an add followed by changes is still an add
+                String previous = pending.get(at);
+                pending.set(at, previous.charAt(0) + record.substring(1));
+            } else {
+                if (record.charAt(0) == 'R')
+                    pendingById.remove(id);
+                else
+                    pendingById.put(id, pending.size());
+                pending.add(record);
+            }
+            if (pending.size() >= batchSize && !writeQueued && !writerStalled && !writer.isShutdown()) {
+                writeQueued = true;
+                writer.execute(this::writeInBackground);
+            }
+        }
+    }
+
+    private void writeInBackground() {
+        synchronized (this) {
+            writeQueued = false;
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            // the records are still pending (or the journal is broken), commit() reports it
+            synchronized (this) {
+                writerStalled = true;
+            }
+        }
+    }
+
+    // writes everything recorded so far (and fsyncs, depending on the policy). compacts afterwards
+    // if the journal has grown past the threshold
+    public void commit() throws IOException {
+        flush();
+        if (fleet != null && size() >= compactionThreshold)
+            compact();
+    }
+
+    // a failed write is cut back off the file and its records go back in front of whatever was recorded
+    // meanwhile, so a later flush writes them again. a failed fsync can't be undone like that- the
+    // journal is marked broken instead
+    private void flush() throws IOException {
+        ioLock.lock();
+        try {
+            checkNotBroken();
+            List<String> batch;
+            synchronized (this) {
+                if (pending.isEmpty())
+                    return;
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                pendingById.clear();
+            }
+            StringBuilder sb = new StringBuilder(batch.size() * 64);
+            for (String record : batch)
+                sb.append(record).append('\n');
+            ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            long start = -1;
+            try {
+                start = channel.position();
+                while (bytes.hasRemaining())
+                    channel.write(bytes);
+            } catch (IOException e) {
+                requeue(batch);
+                if (start >= 0) {
+                    try {
+                        channel.truncate(start);
+                    } catch (IOException t) {
+                        e.addSuppressed(t);
+                        broken = e;
+                    }
+                }
+                throw e;
+            }
+
+            long now = System.currentTimeMillis();
+            if (fsyncPolicy == FsyncPolicy.ON_COMMIT
+                    || (fsyncPolicy == FsyncPolicy.INTERVAL && now - lastFsync >= fsyncIntervalMillis)) {
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    broken = e;
+                    throw e;
+                }
+                lastFsync = now;
+            }
+            synchronized (this) {
+                writerStalled = false;
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // batch goes back in front of pending. pendingById keeps pointing at the newest record of each vehicle,
+    // so later changes coalesce into those rather than into the older requeued ones
+    private synchronized void requeue(List<String> batch) {
+        pending.addAll(0, batch);
+        pendingById.replaceAll((id, at) -> at + batch.size());
+    }
+
+    private void checkNotBroken() throws IOException {
+        IOException e = broken;
+        if (e != null)
+            throw new IOException("Journal is broken: " + e.getMessage(), e);
+    }
+
+    // bytes currently in the journal file
+    public long size() throws IOException {
+        ioLock.lock();
+        try {
+            return channel.size();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // folds the journal into a new snapshot. the journal is rotated aside first so recording carries on
+    // into a fresh file while the snapshot is written- no journal lock is held while the vehicles are read.
+    // a crash at any point leaves old snapshot + rotated journal + journal, or new snapshot + the same,
+    // and both replay to the committed state
+    public void compact() throws IOException {
+        Supplier<List<Vehicle>> bound = fleet;
+        if (bound == null)
+            throw new IllegalStateException("Journal is not bound to a fleet");
+        if (!compactionLock.tryLock())
+            return; // another thread is already compacting
+        try {
+            ioLock.lock();
+            try {
+                flush();
+                channel.force(false);
+                channel.close();
+                if (Files.exists(journalPath))
+                    Files.move(journalPath, rotatedPath, StandardCopyOption.REPLACE_EXISTING);
+                channel = openJournal();
+            } finally {
+                ioLock.unlock();
+            }
+
+            Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            BinarySnapshot.write(bound.get(), temp.toString());
+            try (FileChannel c = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                c.force(true);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(rotatedPath);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            flush();
+            if (fsyncPolicy != FsyncPolicy.NEVER)
+                channel.force(false);
+        } finally {
+            channel.close();
+            ioLock.unlock();
+        }
+    }
+
+    // rebuilds the fleet from the snapshot and journal files. a torn last line (crash in the middle of a
+    // write) is ignored, anything else unreadable fails the whole recovery and leaves the fleet untouched
+    public static void recover(List<Vehicle> fleet, String snapshotFile, String journalFile) throws IOException {
+        Map<String, Vehicle> byId = new LinkedHashMap<>();
+        if (Files.exists(Path.of(snapshotFile))) {
+            List<Vehicle> loaded = new ArrayList<>();
+            BinarySnapshot.read(loaded, snapshotFile);
+            for (Vehicle v : loaded)
+                byId.put(v.getId(), v);
+        }
+        Path journal = Path.of(journalFile);
+        replay(rotated(journal), byId);
+        replay(journal, byId);
+
+        fleet.clear();
+        for (Vehicle v : byId.values()) {
+            try {
+                fleet.add(v);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void replay(Path file, Map<String, Vehicle> byId) throws IOException {
+        if (!Files.exists(file))
+            return;
+        String text = Files.readString(file, StandardCharsets.UTF_8);
+        int end = text.lastIndexOf('\n') + 1; // anything after the last newline never finished writing
+        int lineNo = 0;
+        try (BufferedReader br = new BufferedReader(new StringReader(text.substring(0, end)))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                try {
+                    apply(line, byId);
+                } catch (Exception e) {
+                    throw new IOException("Corrupt journal " + file + " at line " + lineNo + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void apply(String line, Map<String, Vehicle> byId) throws Exception {
+        char op = line.charAt(0);
+        if (op == 'R') {
+            byId.remove(line.substring(2));
+            return;
+        }
+        int comma = line.indexOf(',', 2);
+        int flags = Integer.parseInt(line.substring(2, comma));
+        Vehicle v = VehicleFactory.createVehicle(line.substring(comma + 1).split(","));
+        if ((flags & FLAG_MAINTENANCE_SCHEDULED) != 0 && v instanceof Maintainable m)
+            m.scheduleMaintenance();
+
+        switch (op) {
+            case 'A' -> byId.put(v.getId(), v);
+            // an update that raced with the vehicle's removal is dropped, replace() keeps the fleet order
+            case 'U' -> byId.replace(v.getId(), v);
+            default -> throw new IOException("unknown record type " + op);
+        }
+    }
+
+    private static String state(Vehicle v) {
+        boolean scheduled = v instanceof Maintainable m && m.isMaintenanceScheduled();
+        return (scheduled ? FLAG_MAINTENANCE_SCHEDULED : 0) + "," + v.toCSV();
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private static Path rotated(Path journal) {
+        return journal.resolveSibling(journal.getFileName() + ".old");
+    }
+}
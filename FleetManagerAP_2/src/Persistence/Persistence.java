@@ -8,27 +8,31 @@ import java.util.List;
 
 public class Persistence {
 
+    // from this size on loadFromFile hands the file to MappedCsvLoader
+    static final long MAPPED_LOAD_THRESHOLD = MappedCsvLoader.CHUNK_SIZE;
+
     // Save the entire fleet to a CSV file
     public static void saveToFile(List<Vehicle> fleet, String filename) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
-            for (Vehicle v : fleet) {
-                pw.println(v.toCSV());
-            }
+        try {
+            CsvWriter.write(fleet, filename);
             System.out.println("Fleet saved successfully to " + filename);
         } catch (IOException e) {
             System.out.println("Error saving fleet: " + e.getMessage());
         }
     }
 
-    // Load fleet data back from a CSV file (RELATIVE PATH ONLY)
-    public static void loadFromFile(List<Vehicle> fleet, String filename) {
+    // Load fleet data back from a CSV file (RELATIVE PATH ONLY). false, and fleet untouched, if the file
+    // is missing. big files go through the mapped loader
+    public static boolean loadFromFile(List<Vehicle> fleet, String filename) {
         File file = new File(filename); // only relative path
 
         if (!file.exists()) {
             System.out.println("Error: File not found: " + filename);
             System.out.println("Current working directory: " + System.getProperty("user.dir"));
-            return;
+            return false;
         }
+        if (file.length() >= MAPPED_LOAD_THRESHOLD)
+            return loadFromFileMapped(fleet, filename);
 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             fleet.clear();
@@ -46,5 +50,48 @@ public class Persistence {
         } catch (IOException e) {
             System.out.println("Error loading fleet: " + e.getMessage());
         }
+        return true;
+    }
+
+    // same result as loadFromFile, but memory maps the file and parses it in parallel- meant for big exports
+    public static boolean loadFromFileMapped(List<Vehicle> fleet, String filename) {
+        return MappedCsvLoader.load(fleet, filename);
+    }
+
+    // binary snapshot (see BinarySnapshot)- much smaller and faster than CSV, not human readable
+    public static void saveSnapshot(List<Vehicle> fleet, String filename) {
+        try {
+            BinarySnapshot.write(fleet, filename);
+            System.out.println("Fleet snapshot saved successfully to " + filename);
+        } catch (IOException e) {
+            System.out.println("Error saving fleet snapshot: " + e.getMessage());
+        }
+    }
+
+    // snapshot plus whatever a MutationJournal recorded since it was taken
+    public static void recoverFromJournal(List<Vehicle> fleet, String snapshotFile, String journalFile) {
+        try {
+            MutationJournal.recover(fleet, snapshotFile, journalFile);
+            System.out.println("Fleet recovered successfully from " + snapshotFile + " and " + journalFile);
+        } catch (IOException e) {
+            System.out.println("Error recovering fleet: " + e.getMessage());
+        }
+    }
+
+    public static void loadSnapshot(List<Vehicle> fleet, String filename) {
+        File file = new File(filename);
+
+        if (!file.exists()) {
+            System.out.println("Error: File not found: " + filename);
+            System.out.println("Current working directory: " + System.getProperty("user.dir"));
+            return;
+        }
+
+        try {
+            BinarySnapshot.read(fleet, filename);
+            System.out.println("Fleet snapshot loaded successfully from " + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Error loading fleet snapshot: " + e.getMessage());
+        }
     }
 }
@@ -67,10 +67,117 @@ public class VehicleFactory {
                 default -> throw new InvalidOperationException("Unknown vehicle type: " + type);
             };
         } catch (Exception e) {
-             throw new InvalidOperationException("Error parsing vehicle data for type " + type + ": " + e.getMessage());
+             throw InvalidOperationException.stackless("Error parsing vehicle data for type " + type + ": " + e.getMessage());
         }
     }
 
+    // same as createVehicle(String[]) on the fields FieldParser.split found in line, without cutting the
+    // line into strings first- only the id and model become strings. lines the String version would reject
+    // for their shape (unknown type, missing id or model) are handed to it so the error is the same
+    public static Vehicle createVehicle(byte[] line, int[] offsets, int fieldCount) throws InvalidOperationException {
+        VehicleType type = fieldCount >= 3 ? typeOf(line, offsets[0], end(offsets, 0)) : null;
+        if (type == null)
+            return createVehicle(strings(line, offsets, fieldCount));
+
+        String id = FieldParser.parseString(line, offsets[1], end(offsets, 1));
+        String model = FieldParser.parseString(line, offsets[2], end(offsets, 2));
+        try {
+            return switch (type) {
+                case CAR -> new Car(
+                        id,
+                        model,
+                        parseDouble(line, offsets, fieldCount, 3),      // maxSpeed
+                        parseDouble(line, offsets, fieldCount, 4),      // currentMileage
+                        parseInt(line, offsets, fieldCount, 5),         // numWheels
+                        parseDouble(line, offsets, fieldCount, 6),      // fuelLevel
+                        parseInt(line, offsets, fieldCount, 7),         // passengerCapacity
+                        parseInt(line, offsets, fieldCount, 8)          // currentPassengers
+                );
+                case TRUCK -> new Truck(
+                        id,
+                        model,
+                        parseDouble(line, offsets, fieldCount, 3),      // maxSpeed
+                        parseDouble(line, offsets, fieldCount, 4),      // currentMileage
+                        parseInt(line, offsets, fieldCount, 5),         // numWheels
+                        parseDouble(line, offsets, fieldCount, 6),      // fuelLevel
+                        parseDouble(line, offsets, fieldCount, 7),      // cargoCapacity
+                        parseDouble(line, offsets, fieldCount, 8)       // currentCargo
+                );
+                case BUS -> new Bus(
+                        id,
+                        model,
+                        parseDouble(line, offsets, fieldCount, 3),      // maxSpeed
+                        parseDouble(line, offsets, fieldCount, 4),      // currentMileage
+                        parseInt(line, offsets, fieldCount, 5),         // numWheels
+                        parseDouble(line, offsets, fieldCount, 6),      // fuelLevel
+                        parseInt(line, offsets, fieldCount, 7),         // passengerCapacity
+                        parseInt(line, offsets, fieldCount, 8),         // currentPassengers
+                        parseDouble(line, offsets, fieldCount, 9),      // cargoCapacity
+                        parseDouble(line, offsets, fieldCount, 10)      // currentCargo
+                );
+                case AIRPLANE -> new Airplane(
+                        id,
+                        model,
+                        parseDouble(line, offsets, fieldCount, 3),      // maxSpeed
+                        parseDouble(line, offsets, fieldCount, 4),      // currentMileage
+                        parseDouble(line, offsets, fieldCount, 5),      // maxAltitude
+                        parseDouble(line, offsets, fieldCount, 6),      // fuelLevel
+                        parseInt(line, offsets, fieldCount, 7),         // passengerCapacity
+                        parseInt(line, offsets, fieldCount, 8),         // currentPassengers
+                        parseDouble(line, offsets, fieldCount, 9),      // cargoCapacity
+                        parseDouble(line, offsets, fieldCount, 10)      // currentCargo
+                );
+                case CARGO_SHIP -> new CargoShip(
+                        id,
+                        model,
+                        parseDouble(line, offsets, fieldCount, 3),      // maxSpeed
+                        parseDouble(line, offsets, fieldCount, 4),      // currentMileage
+                        fieldCount > 5 && FieldParser.parseBoolean(line, offsets[5], end(offsets, 5), false), // hasSail
+                        parseDouble(line, offsets, fieldCount, 6),      // cargoCapacity
+                        parseDouble(line, offsets, fieldCount, 7),      // currentCargo
+                        parseDouble(line, offsets, fieldCount, 8)       // fuelLevel
+                );
+            };
+        } catch (Exception e) {
+            throw InvalidOperationException.stackless("Error parsing vehicle data for type " + type.getLabel() + ": " + e.getMessage());
+        }
+    }
+
+    // exact, case sensitive match like the switch on data[0] above, null for anything else
+    private static VehicleType typeOf(byte[] line, int from, int to) {
+        for (VehicleType t : VehicleType.values()) {
+            String label = t.getLabel();
+            if (label.length() != to - from)
+                continue;
+            int i = 0;
+            while (i < label.length() && line[from + i] == label.charAt(i))
+                i++;
+            if (i == label.length())
+                return t;
+        }
+        return null;
+    }
+
+    private static int end(int[] offsets, int field) {
+        return offsets[field + 1] - 1;
+    }
+
+    private static String[] strings(byte[] line, int[] offsets, int fieldCount) {
+        String[] data = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++)
+            data[i] = FieldParser.parseString(line, offsets[i], end(offsets, i));
+        return data;
+    }
+
+    // missing and empty fields are 0, like in the String version
+    private static double parseDouble(byte[] line, int[] offsets, int fieldCount, int index) {
+        return index < fieldCount ? FieldParser.parseDouble(line, offsets[index], end(offsets, index), 0.0) : 0.0;
+    }
+
+    private static int parseInt(byte[] line, int[] offsets, int fieldCount, int index) {
+        return index < fieldCount ? FieldParser.parseInt(line, offsets[index], end(offsets, index), 0) : 0;
+    }
+
     private static String getSafe(String[] data, int index, String defaultValue) {
         if (index < data.length && data[index] != null && !data[index].isEmpty()) {
             return data[index];
@@ -79,22 +186,15 @@ public class VehicleFactory {
     }
 
     private static double parseDoubleSafe(String[] data, int index) {
-        String val = getSafe(data, index, "0.0");
-        try {
-            return Double.parseDouble(val);
-        } catch (NumberFormatException e) {
+        if (index >= data.length || data[index] == null)
             return 0.0;
-        }
+        return FieldParser.parseDouble(data[index], 0, data[index].length(), 0.0);
     }
 
     private static int parseIntSafe(String[] data, int index) {
-        String val = getSafe(data, index, "0");
-        try {
-            // Handle cases like "15.0" being parsed as int 15
-            double d = Double.parseDouble(val);
-            return (int) d;
-        } catch (NumberFormatException e) {
+        // "15.0" is accepted as 15
+        if (index >= data.length || data[index] == null)
             return 0;
-        }
+        return FieldParser.parseInt(data[index], 0, data[index].length(), 0);
     }
 }
@@ -0,0 +1,130 @@
+package Planning;
+
+import CustomExceptions.OverloadException;
+import Interfaces.CargoCarrier;
+import Vehicles.Truck;
+import Vehicles.Vehicle;
+import Vehicles.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// what CargoPlanner decided: which vehicle takes each shipment, what didn't fit anywhere, and what the
+// new loads cost in truck efficiency. nothing is loaded until apply()
+public class CargoPlan {
+    private final Vehicle[] vehicles;
+    private final double[] capacity;
+    private final double[] initialLoad;
+    private final double[] plannedLoad;
+    private final Shipment[] shipments; // in the order they were placed, heaviest first
+    private final int[] assignedTo;     // index into vehicles, -1 when the shipment didn't fit
+
+    private final Map<Shipment, Vehicle> byShipment = new IdentityHashMap<>();
+    private final List<Shipment> unassigned = new ArrayList<>();
+    private final List<Vehicle> trucksOverHalfLoad = new ArrayList<>();
+    private double extraFuelPerKm;
+    private double plannedWeight;
+    private int vehiclesUsed;
+
+    CargoPlan(Vehicle[] vehicles, double[] capacity, double[] initialLoad, double[] plannedLoad,
+              Shipment[] shipments, int[] assignedTo) {
+        this.vehicles = vehicles;
+        this.capacity = capacity;
+        this.initialLoad = initialLoad;
+        this.plannedLoad = plannedLoad;
+        this.shipments = shipments;
+        this.assignedTo = assignedTo;
+
+        boolean[] used = new boolean[vehicles.length];
+        for (int s = 0; s < shipments.length; s++) {
+            if (assignedTo[s] < 0) {
+                unassigned.add(shipments[s]);
+            } else {
+                byShipment.put(shipments[s], vehicles[assignedTo[s]]);
+                plannedWeight += shipments[s].getWeight();
+                used[assignedTo[s]] = true;
+            }
+        }
+        // a truck that goes from at most half loaded to over half loaded drops from 8 to 7.2 km/l
+        for (int i = 0; i < vehicles.length; i++) {
+            if (used[i])
+                vehiclesUsed++;
+            if (vehicles[i].getType() != VehicleType.TRUCK)
+                continue;
+            double before = Truck.efficiencyAt(initialLoad[i], capacity[i]);
+            double after = Truck.efficiencyAt(plannedLoad[i], capacity[i]);
+            if (after < before) {
+                trucksOverHalfLoad.add(vehicles[i]);
+                extraFuelPerKm += 1 / after - 1 / before;
+            }
+        }
+    }
+
+    // null when the shipment didn't fit (or isn't part of this plan)
+    public Vehicle getVehicle(Shipment shipment) {
+        return byShipment.get(shipment);
+    }
+
+    public int getAssignedCount() {
+        return byShipment.size();
+    }
+
+    public List<Shipment> getUnassigned() {
+        return Collections.unmodifiableList(unassigned);
+    }
+
+    public double getPlannedWeight() {
+        return plannedWeight;
+    }
+
+    // vehicles that get at least one shipment
+    public int getVehiclesUsed() {
+        return vehiclesUsed;
+    }
+
+    // cargo on the vehicle once the plan is applied
+    public double getPlannedLoad(Vehicle v) {
+        for (int i = 0; i < vehicles.length; i++) {
+            if (vehicles[i] == v)
+                return plannedLoad[i];
+        }
+        throw new IllegalArgumentException("Vehicle " + v.getId() + " is not part of this plan");
+    }
+
+    // trucks the plan pushes over half their capacity, which costs them 10% fuel efficiency
+    public List<Vehicle> getTrucksOverHalfLoad() {
+        return Collections.unmodifiableList(trucksOverHalfLoad);
+    }
+
+    // extra liters per km those trucks burn compared to their current load
+    public double getExtraFuelPerKm() {
+        return extraFuelPerKm;
+    }
+
+    // loads every assigned shipment, heaviest first. a vehicle whose load changed since planning may refuse
+    // one- those shipments are returned and the rest of the plan still goes ahead
+    public List<Shipment> apply() {
+        List<Shipment> failed = new ArrayList<>();
+        for (int s = 0; s < shipments.length; s++) {
+            if (assignedTo[s] < 0)
+                continue;
+            try {
+                ((CargoCarrier) vehicles[assignedTo[s]]).loadCargo(shipments[s].getWeight());
+            } catch (OverloadException e) {
+                failed.add(shipments[s]);
+            }
+        }
+        return failed;
+    }
+
+    public String getSummary() {
+        return "Shipments planned: " + getAssignedCount() + " of " + shipments.length + "\n" +
+                "Weight planned: " + plannedWeight + " kg\n" +
+                "Vehicles used: " + vehiclesUsed + "\n" +
+                "Trucks pushed over half load: " + trucksOverHalfLoad.size() +
+                " (+" + extraFuelPerKm * 100 + " l per 100 km)";
+    }
+}
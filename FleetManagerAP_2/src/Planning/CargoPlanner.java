@@ -0,0 +1,249 @@
+package Planning;
+
+import Interfaces.CargoCarrier;
+import Vehicles.Vehicle;
+import Vehicles.VehicleType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+// assigns a batch of shipments to cargo carriers by remaining capacity (capacity - current cargo) in one
+// pass, heaviest shipment first. instead of trying vehicles one by one each type keeps its vehicles in a
+// capacity ordered index, so a shipment is placed in O(log n):
+//  FIRST_FIT_DECREASING - the first vehicle (in the order given) with room, via a max segment tree
+//  BEST_FIT_DECREASING  - the vehicle left with the least room, via a tree ordered by remaining capacity
+// a shipment restricted to some types only looks at those types' indexes. the fit test is the one
+// loadCargo does (load + weight <= capacity), so an applied plan never overloads anything
+public class CargoPlanner {
+
+    public enum Strategy {
+        FIRST_FIT_DECREASING,
+        BEST_FIT_DECREASING
+    }
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final Strategy strategy;
+
+    public CargoPlanner() {
+        this(Strategy.FIRST_FIT_DECREASING);
+    }
+
+    public CargoPlanner(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // vehicles that aren't cargo carriers are left out. each vehicle's load is read once, under its lock;
+    // the vehicles themselves are not changed, see CargoPlan.apply()
+    public CargoPlan plan(List<? extends Vehicle> candidates, List<Shipment> shipments) {
+        Vehicle[] vehicles = candidates.stream().filter(v -> v instanceof CargoCarrier).toArray(Vehicle[]::new);
+        int n = vehicles.length;
+        double[] capacity = new double[n];
+        double[] initialLoad = new double[n];
+        for (int i = 0; i < n; i++) {
+            CargoCarrier c = (CargoCarrier) vehicles[i];
+            synchronized (vehicles[i]) {
+                capacity[i] = c.getCargoCapacity();
+                initialLoad[i] = c.getCurrentCargo();
+            }
+        }
+        double[] load = initialLoad.clone();
+
+        Bins[] bins = new Bins[TYPES.length];
+        int[][] members = new int[TYPES.length][];
+        int[] counts = new int[TYPES.length];
+        for (Vehicle v : vehicles)
+            counts[v.getType().tag()]++;
+        for (VehicleType t : TYPES)
+            members[t.tag()] = new int[counts[t.tag()]];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            int tag = vehicles[i].getType().tag();
+            members[tag][counts[tag]++] = i;
+        }
+        // where each vehicle sits in its type's index, shared since every vehicle is in exactly one
+        int[] slots = new int[n];
+        Room[] rooms = new Room[n];
+        for (VehicleType t : TYPES) {
+            int[] m = members[t.tag()];
+            bins[t.tag()] = strategy == Strategy.FIRST_FIT_DECREASING
+                    ? new FirstFitTree(m, capacity, load, slots)
+                    : new BestFitSet(m, capacity, load, rooms);
+        }
+
+        // heaviest first, equal weights keep their input order
+        Shipment[] order = shipments.toArray(new Shipment[0]);
+        Arrays.sort(order, Comparator.comparingDouble(Shipment::getWeight).reversed());
+
+        int[] assignedTo = new int[order.length];
+        for (int s = 0; s < order.length; s++) {
+            Shipment shipment = order[s];
+            double w = shipment.getWeight();
+            int best = -1;
+            Bins from = null;
+            for (VehicleType t : TYPES) {
+                Bins b = bins[t.tag()];
+                if (b.isEmpty() || !shipment.isAllowedOn(t))
+                    continue;
+                int candidate = b.find(w);
+                if (candidate >= 0 && (best < 0 || prefers(candidate, best, capacity, load))) {
+                    best = candidate;
+                    from = b;
+                }
+            }
+            assignedTo[s] = best;
+            if (best >= 0) {
+                load[best] += w;
+                from.update(best);
+            }
+        }
+        return new CargoPlan(vehicles, capacity, initialLoad, load, order, assignedTo);
+    }
+
+    // between the candidates of two types: first fit takes the earlier vehicle, best fit the tighter one
+    private boolean prefers(int a, int b, double[] capacity, double[] load) {
+        if (strategy == Strategy.FIRST_FIT_DECREASING)
+            return a < b;
+        int c = Double.compare(capacity[a] - load[a], capacity[b] - load[b]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    // loadCargo's own test, the indexes only narrow down where to look
+    private static boolean fits(int i, double w, double[] capacity, double[] load) {
+        return !(load[i] + w > capacity[i]);
+    }
+
+    // one type's vehicles, ordered for a strategy. vehicles are referred to by their index in the plan
+    private interface Bins {
+        boolean isEmpty();
+
+        // the vehicle this strategy puts w on, -1 if none has room
+        int find(double w);
+
+        // load[vehicle] changed
+        void update(int vehicle);
+    }
+
+    // max of the remaining capacity over ranges of the type's vehicles, in input order: the leftmost leaf
+    // with room for w is found by walking down from the root
+    private static final class FirstFitTree implements Bins {
+        private final int[] members;
+        private final double[] capacity;
+        private final double[] load;
+        private final int[] slotOf;
+        private final int leaves;
+        private final double[] max;
+
+        FirstFitTree(int[] members, double[] capacity, double[] load, int[] slotOf) {
+            this.members = members;
+            this.capacity = capacity;
+            this.load = load;
+            this.slotOf = slotOf;
+            int size = 1;
+            while (size < members.length)
+                size <<= 1;
+            this.leaves = size;
+            this.max = new double[2 * size];
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+            for (int s = 0; s < members.length; s++) {
+                slotOf[members[s]] = s;
+                max[size + s] = capacity[members[s]] - load[members[s]];
+            }
+            for (int node = size - 1; node > 0; node--)
+                max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return members.length == 0;
+        }
+
+        @Override
+        public int find(double w) {
+            // the tree works on capacity - load, which can be a rounding step off loadCargo's test, so
+            // the rare candidate that fails the exact test is passed over
+            for (int from = 0; ; ) {
+                int slot = leftmost(1, 0, leaves, w, from);
+                if (slot < 0)
+                    return -1;
+                if (fits(members[slot], w, capacity, load))
+                    return members[slot];
+                from = slot + 1;
+            }
+        }
+
+        // first slot >= from under node (covering [lo, hi)) with room for w
+        private int leftmost(int node, int lo, int hi, double w, int from) {
+            if (hi <= from || max[node] < w)
+                return -1;
+            if (hi - lo == 1)
+                return lo;
+            int mid = (lo + hi) >>> 1;
+            int slot = leftmost(2 * node, lo, mid, w, from);
+            return slot >= 0 ? slot : leftmost(2 * node + 1, mid, hi, w, from);
+        }
+
+        @Override
+        public void update(int vehicle) {
+            int node = leaves + slotOf[vehicle];
+            max[node] = capacity[vehicle] - load[vehicle];
+            for (node >>= 1; node > 0; node >>= 1)
+                max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    // a vehicle filed under its remaining capacity in a BestFitSet
+    private static final class Room {
+        final double remaining;
+        final int vehicle;
+
+        Room(double remaining, int vehicle) {
+            this.remaining = remaining;
+            this.vehicle = vehicle;
+        }
+    }
+
+    // the type's vehicles ordered by remaining capacity (then input order): the tightest fit for w is the
+    // ceiling of w
+    private static final class BestFitSet implements Bins {
+        private final double[] capacity;
+        private final double[] load;
+        private final TreeSet<Room> rooms = new TreeSet<>(
+                Comparator.comparingDouble((Room r) -> r.remaining).thenComparingInt(r -> r.vehicle));
+        private final Room[] roomOf; // what each vehicle is currently filed under
+
+        BestFitSet(int[] members, double[] capacity, double[] load, Room[] roomOf) {
+            this.capacity = capacity;
+            this.load = load;
+            this.roomOf = roomOf;
+            for (int i : members) {
+                roomOf[i] = new Room(capacity[i] - load[i], i);
+                rooms.add(roomOf[i]);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return rooms.isEmpty();
+        }
+
+        @Override
+        public int find(double w) {
+            for (Room r = rooms.ceiling(new Room(w, -1)); r != null; r = rooms.higher(r)) {
+                if (fits(r.vehicle, w, capacity, load))
+                    return r.vehicle;
+            }
+            return -1;
+        }
+
+        @Override
+        public void update(int vehicle) {
+            rooms.remove(roomOf[vehicle]);
+            Room room = new Room(capacity[vehicle] - load[vehicle], vehicle);
+            roomOf[vehicle] = room;
+            rooms.add(room);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package Planning;
+
+import Vehicles.Vehicle;
+import Vehicles.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// every vehicle x every route in one call instead of one estimateJourneyTime call per pair. vehicles are
+// grouped by type so the domain factor is looked up once per group, rows are filled in parallel, and the
+// inner loop over distances is plain array arithmetic. results are bit for bit what estimateJourneyTime
+// gives: (distance / max speed) * factor.
+// the last few matrices are kept, keyed by the exact vehicles and distances asked for; a repeated request
+// is answered from the cache as long as none of those vehicles' max speeds changed in between
+public class JourneyTimeEstimator {
+    public static final int DEFAULT_CACHE_SIZE = 16;
+
+    // below this many cells the fork/join overhead is more than the work
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final int cacheSize;
+    private final Map<Key, Cached> cache;
+    private long hits;
+    private long misses;
+
+    public JourneyTimeEstimator() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    // cacheSize 0 turns memoization off
+    public JourneyTimeEstimator(int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+                return size() > JourneyTimeEstimator.this.cacheSize;
+            }
+        };
+    }
+
+    public JourneyTimeMatrix estimate(List<? extends Vehicle> vehicles, double[] distances) {
+        Vehicle[] rows = vehicles.toArray(new Vehicle[0]);
+        double[] columns = distances.clone();
+        double[] speeds = new double[rows.length];
+        for (int i = 0; i < rows.length; i++)
+            speeds[i] = rows[i].getMaxSpeed();
+
+        Key key = new Key(rows, columns);
+        if (cacheSize > 0) {
+            synchronized (cache) {
+                Cached c = cache.get(key);
+                if (c != null && Arrays.equals(c.speeds, speeds)) {
+                    hits++;
+                    return c.matrix;
+                }
+                misses++;
+            }
+        }
+
+        JourneyTimeMatrix matrix = new JourneyTimeMatrix(new ArrayList<>(Arrays.asList(rows)), columns,
+                compute(rows, speeds, columns));
+        if (cacheSize > 0) {
+            synchronized (cache) {
+                cache.put(key, new Cached(speeds, matrix));
+            }
+        }
+        return matrix;
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public String getCacheStats() {
+        synchronized (cache) {
+            return "Cached matrices: " + cache.size() + ", Hits: " + hits + ", Misses: " + misses;
+        }
+    }
+
+    private static double[] compute(Vehicle[] rows, double[] speeds, double[] distances) {
+        int m = distances.length;
+        int size;
+        try {
+            size = Math.multiplyExact(rows.length, m);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(rows.length + " vehicles by " + m + " routes is too big for one matrix");
+        }
+        double[] times = new double[size]; // so row * m + j below can't overflow either
+
+        // row numbers per type, and the type's factor read from its first vehicle
+        VehicleType[] types = VehicleType.values();
+        int[][] groups = new int[types.length][];
+        int[] counts = new int[types.length];
+        for (Vehicle v : rows)
+            counts[v.getType().tag()]++;
+        double[] factors = new double[types.length];
+        for (int t = 0; t < types.length; t++)
+            groups[t] = new int[counts[t]];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < rows.length; i++) {
+            int t = rows[i].getType().tag();
+            if (counts[t] == 0)
+                factors[t] = rows[i].getJourneyTimeFactor();
+            groups[t][counts[t]++] = i;
+        }
+
+        boolean parallel = (long) rows.length * m >= PARALLEL_THRESHOLD;
+        for (int t = 0; t < types.length; t++) {
+            int[] group = groups[t];
+            double factor = factors[t];
+            IntStream range = IntStream.range(0, group.length);
+            if (parallel)
+                range = range.parallel();
+            range.forEach(k -> {
+                int row = group[k];
+                double speed = speeds[row];
+                int base = row * m;
+                for (int j = 0; j < m; j++)
+                    times[base + j] = distances[j] / speed * factor;
+            });
+        }
+        return times;
+    }
+
+    // same vehicle objects in the same order and the same distances
+    private static final class Key {
+        private final Vehicle[] vehicles;
+        private final double[] distances;
+        private final int hash;
+
+        Key(Vehicle[] vehicles, double[] distances) {
+            this.vehicles = vehicles;
+            this.distances = distances;
+            int h = Arrays.hashCode(distances);
+            for (Vehicle v : vehicles)
+                h = 31 * h + System.identityHashCode(v);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key k) || k.hash != hash || k.vehicles.length != vehicles.length)
+                return false;
+            for (int i = 0; i < vehicles.length; i++) {
+                if (k.vehicles[i] != vehicles[i])
+                    return false;
+            }
+            return Arrays.equals(k.distances, distances);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Cached {
+        final double[] speeds;
+        final JourneyTimeMatrix matrix;
+
+        Cached(double[] speeds, JourneyTimeMatrix matrix) {
+            this.speeds = speeds;
+            this.matrix = matrix;
+        }
+    }
+}
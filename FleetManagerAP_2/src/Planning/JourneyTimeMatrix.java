@@ -0,0 +1,75 @@
+package Planning;
+
+import Vehicles.Vehicle;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// estimated journey times for a set of vehicles over a set of route distances, one flat row major array:
+// row i is vehicles.get(i), column j is distances[j]. every value is exactly what
+// vehicles.get(i).estimateJourneyTime(distances[j]) returned when the matrix was built.
+// read only, matrices handed out by the estimator's cache are shared
+public class JourneyTimeMatrix {
+    private final List<Vehicle> vehicles;
+    private final double[] distances;
+    private final double[] times;
+
+    JourneyTimeMatrix(List<Vehicle> vehicles, double[] distances, double[] times) {
+        this.vehicles = Collections.unmodifiableList(vehicles);
+        this.distances = distances;
+        this.times = times;
+    }
+
+    public int rows() {
+        return vehicles.size();
+    }
+
+    public int columns() {
+        return distances.length;
+    }
+
+    public List<Vehicle> getVehicles() {
+        return vehicles;
+    }
+
+    public double getDistance(int column) {
+        return distances[column];
+    }
+
+    // rows * columns fits in an int (it is the array's length), so once both are in range the index
+    // can't overflow
+    public double get(int row, int column) {
+        checkRow(row);
+        if (column < 0 || column >= distances.length)
+            throw new IndexOutOfBoundsException("Column " + column + " out of bounds for length " + distances.length);
+        return times[row * distances.length + column];
+    }
+
+    // copy of one vehicle's times over every route
+    public double[] getRow(int row) {
+        checkRow(row);
+        int from = row * distances.length;
+        return Arrays.copyOfRange(times, from, from + distances.length);
+    }
+
+    // copy of the whole matrix, row major
+    public double[] toArray() {
+        return times.clone();
+    }
+
+    // the quickest vehicle for route column, -1 if there are no vehicles
+    public int fastestRow(int column) {
+        int best = -1;
+        for (int i = 0; i < vehicles.size(); i++) {
+            if (best < 0 || get(i, column) < get(best, column))
+                best = i;
+        }
+        return best;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= vehicles.size())
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + vehicles.size());
+    }
+}
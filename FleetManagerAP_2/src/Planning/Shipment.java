@@ -0,0 +1,51 @@
+package Planning;
+
+import CustomExceptions.InvalidOperationException;
+import Vehicles.VehicleType;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// one piece of cargo for CargoPlanner: a weight in kg and, optionally, the vehicle types allowed to carry it
+public class Shipment {
+    private final String id;
+    private final double weight;
+    private final Set<VehicleType> allowedTypes; // empty = any cargo carrier
+
+    public Shipment(String id, double weight) throws InvalidOperationException {
+        this(id, weight, EnumSet.noneOf(VehicleType.class));
+    }
+
+    public Shipment(String id, double weight, Set<VehicleType> allowedTypes) throws InvalidOperationException {
+        if (!(weight > 0) || Double.isInfinite(weight))
+            throw new InvalidOperationException("Shipment weight must be positive");
+        this.id = id;
+        this.weight = weight;
+        this.allowedTypes = allowedTypes == null || allowedTypes.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(allowedTypes));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    // empty when any cargo carrier will do
+    public Set<VehicleType> getAllowedTypes() {
+        return allowedTypes;
+    }
+
+    public boolean isAllowedOn(VehicleType type) {
+        return allowedTypes.isEmpty() || allowedTypes.contains(type);
+    }
+
+    @Override
+    public String toString() {
+        return id + " (" + weight + " kg" + (allowedTypes.isEmpty() ? "" : ", " + allowedTypes) + ")";
+    }
+}
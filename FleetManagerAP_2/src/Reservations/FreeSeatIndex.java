@@ -0,0 +1,90 @@
+package Reservations;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// ledgers grouped by free seats in power of two buckets: bucket k holds the vehicles with 2^k to 2^(k+1)-1
+// free seats, full vehicles are in none. every vehicle in a bucket above k has room for any request that
+// falls in bucket k, so a lookup rarely looks at more than one vehicle. a ledger only moves when its count
+// crosses a power of two. the index is a hint- whoever picks a vehicle from it still has to win the CAS.
+// each bucket is split in stripes and every lookup starts at a random one, so threads booking at the same
+// time spread over different vehicles instead of all racing for the first one
+final class FreeSeatIndex {
+    static final int NONE = -1;
+    private static final int BUCKETS = 31;
+    private static final int STRIPES = 16;
+
+    private final Set<SeatLedger>[][] buckets;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    FreeSeatIndex() {
+        buckets = new Set[BUCKETS][STRIPES];
+        for (Set<SeatLedger>[] stripes : buckets) {
+            for (int s = 0; s < STRIPES; s++)
+                stripes[s] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    static int bucketOf(int seats) {
+        return seats <= 0 ? NONE : 31 - Integer.numberOfLeadingZeros(seats);
+    }
+
+    // call after every change to the ledger's count. most changes stay inside the same power of two and
+    // return without locking. a move happens under the ledger's lock and re-reads the count after writing
+    // the new bucket: a caller that changed the count meanwhile either sees that bucket (and fixes it
+    // itself) or its count is seen here, so the ledger always ends up in the right bucket
+    void reindex(SeatLedger ledger) {
+        if (bucketFor(ledger) == ledger.bucket)
+            return;
+        synchronized (ledger) {
+            for (int bucket = bucketFor(ledger); bucket != ledger.bucket; bucket = bucketFor(ledger))
+                move(ledger, bucket);
+        }
+    }
+
+    // for good: later count changes (a reservation still being released) don't bring it back
+    void remove(SeatLedger ledger) {
+        synchronized (ledger) {
+            ledger.retired = true;
+            move(ledger, NONE);
+        }
+    }
+
+    // a vehicle that had at least seats free a moment ago, null if there is none. the smallest bucket
+    // that is sure to fit goes first, so big vehicles are kept for big groups
+    SeatLedger find(int seats) {
+        int k = bucketOf(seats);
+        if (k == NONE)
+            return null;
+        int start = ThreadLocalRandom.current().nextInt(STRIPES);
+        for (int b = k + 1; b < BUCKETS; b++) {
+            for (int i = 0; i < STRIPES; i++) {
+                Iterator<SeatLedger> it = buckets[b][(start + i) % STRIPES].iterator();
+                if (it.hasNext())
+                    return it.next();
+            }
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            for (SeatLedger ledger : buckets[k][(start + i) % STRIPES]) {
+                if (ledger.available() >= seats)
+                    return ledger;
+            }
+        }
+        return null;
+    }
+
+    private static int bucketFor(SeatLedger ledger) {
+        return ledger.retired ? NONE : bucketOf(ledger.available());
+    }
+
+    private void move(SeatLedger ledger, int bucket) {
+        int stripe = (System.identityHashCode(ledger) & 0x7fffffff) % STRIPES;
+        if (ledger.bucket != NONE)
+            buckets[ledger.bucket][stripe].remove(ledger);
+        if (bucket != NONE)
+            buckets[bucket][stripe].add(ledger);
+        ledger.bucket = bucket;
+    }
+}
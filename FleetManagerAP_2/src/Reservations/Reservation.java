@@ -0,0 +1,64 @@
+package Reservations;
+
+import Vehicles.Vehicle;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// seats held on one vehicle. a reservation starts PENDING and ends in exactly one of CONFIRMED (the
+// passengers boarded), RELEASED or EXPIRED; a confirmed one can still be released, which disembarks them.
+// every transition is a compare-and-set, so a confirm racing an expiry has a single winner
+public class Reservation {
+
+    public enum State {
+        PENDING,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private final long id;
+    private final SeatLedger ledger;
+    private final int seats;
+    private final long deadline; // engine clock, nanos
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+    Reservation(long id, SeatLedger ledger, int seats, long deadline) {
+        this.id = id;
+        this.ledger = ledger;
+        this.seats = seats;
+        this.deadline = deadline;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Vehicle getVehicle() {
+        return ledger.vehicle;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    SeatLedger getLedger() {
+        return ledger;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    boolean moveTo(State from, State to) {
+        return state.compareAndSet(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation " + id + ": " + seats + " seats on " + ledger.vehicle.getId() + " (" + state.get() + ")";
+    }
+}
@@ -0,0 +1,226 @@
+package Reservations;
+
+import CustomExceptions.InvalidOperationException;
+import CustomExceptions.OverloadException;
+import Interfaces.PassengerCarrier;
+import Vehicles.Vehicle;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// seat booking for passenger carriers from many threads at once. a reservation holds seats for a while
+// (reserve), then either boards the passengers (confirm) or gives the seats back (release, or expiry
+// when its timeout passes). seats are counted per vehicle with a CAS, see SeatLedger, so a vehicle can
+// never be booked past its free seats. a booking only takes a lock when it moves its vehicle to another
+// bucket of the free seat index, which happens when the count crosses a power of two, see FreeSeatIndex.
+// the engine only knows the passengers that were on board when a vehicle was registered plus its own
+// bookings. passengers boarded some other way are still caught at confirm time- the vehicle refuses to
+// board more than its capacity and the reservation is released instead
+public class ReservationEngine implements AutoCloseable {
+    private final Map<String, SeatLedger> ledgers = new ConcurrentHashMap<>();
+    private final FreeSeatIndex index = new FreeSeatIndex();
+    private final NavigableSet<Reservation> pending = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Reservation::getDeadline).thenComparingLong(Reservation::getId));
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final LongSupplier clock;
+
+    private final LongAdder reserved = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private ScheduledExecutorService expiryTimer;
+
+    public ReservationEngine() {
+        this(System::nanoTime);
+    }
+
+    // clock in nanoseconds, for simulations that run on their own time
+    public ReservationEngine(LongSupplier nanoClock) {
+        this.clock = nanoClock;
+    }
+
+    public void register(Vehicle v) throws InvalidOperationException {
+        if (!(v instanceof PassengerCarrier))
+            throw new InvalidOperationException("Vehicle " + v.getId() + " does not carry passengers");
+        SeatLedger ledger = new SeatLedger(v);
+        if (ledgers.putIfAbsent(v.getId(), ledger) == null)
+            index.reindex(ledger);
+    }
+
+    // every passenger carrier in vehicles, the rest are skipped
+    public void registerAll(Collection<? extends Vehicle> vehicles) throws InvalidOperationException {
+        for (Vehicle v : vehicles) {
+            if (v instanceof PassengerCarrier)
+                register(v);
+        }
+    }
+
+    // no new bookings for the vehicle. reservations already made can still be confirmed or released
+    public void unregister(Vehicle v) {
+        SeatLedger ledger = ledgers.remove(v.getId());
+        if (ledger != null)
+            index.remove(ledger);
+    }
+
+    // null if the vehicle has fewer than seats free
+    public Reservation reserve(Vehicle v, int seats, long timeoutMillis) throws InvalidOperationException {
+        checkSeats(seats);
+        SeatLedger ledger = ledgers.get(v.getId());
+        if (ledger == null || ledger.vehicle != v)
+            throw new InvalidOperationException("Vehicle " + v.getId() + " is not registered for reservations");
+        Reservation r = tryReserve(ledger, seats, timeoutMillis);
+        if (r == null)
+            rejected.increment();
+        return r;
+    }
+
+    // seats on whichever vehicle has them, null when no registered vehicle does
+    public Reservation reserveAny(int seats, long timeoutMillis) throws InvalidOperationException {
+        checkSeats(seats);
+        for (SeatLedger ledger = index.find(seats); ledger != null; ledger = index.find(seats)) {
+            Reservation r = tryReserve(ledger, seats, timeoutMillis);
+            if (r != null)
+                return r;
+            // another thread got there first and hasn't moved the vehicle to its new bucket yet- do it
+            // for them so the next lookup doesn't pick it again
+            index.reindex(ledger);
+        }
+        rejected.increment();
+        return null;
+    }
+
+    // boards the passengers. false if the reservation is no longer pending, has timed out, or the vehicle
+    // turned out to be full- in the last two cases its seats are given back
+    public boolean confirm(Reservation r) {
+        if (clock.getAsLong() - r.getDeadline() > 0) {
+            expire(r);
+            return false;
+        }
+        if (!r.moveTo(Reservation.State.PENDING, Reservation.State.CONFIRMED))
+            return false;
+        pending.remove(r);
+        SeatLedger ledger = r.getLedger();
+        try {
+            ledger.carrier.boardPassengers(r.getSeats());
+        } catch (OverloadException e) {
+            r.moveTo(Reservation.State.CONFIRMED, Reservation.State.RELEASED);
+            giveBack(ledger, r.getSeats());
+            released.increment();
+            return false;
+        }
+        confirmed.increment();
+        return true;
+    }
+
+    // gives the seats back. a confirmed reservation's passengers get off first. false if it had already
+    // been released or had expired
+    public boolean release(Reservation r) {
+        SeatLedger ledger = r.getLedger();
+        if (r.moveTo(Reservation.State.PENDING, Reservation.State.RELEASED)) {
+            pending.remove(r);
+        } else if (r.moveTo(Reservation.State.CONFIRMED, Reservation.State.RELEASED)) {
+            try {
+                ledger.carrier.disembarkPassengers(r.getSeats());
+            } catch (InvalidOperationException e) {
+                // they already got off some other way, the seats are free either way
+            }
+        } else {
+            return false;
+        }
+        giveBack(ledger, r.getSeats());
+        released.increment();
+        return true;
+    }
+
+    // expires every pending reservation whose timeout has passed, returns how many
+    public int expireOverdue() {
+        long now = clock.getAsLong();
+        int count = 0;
+        for (Iterator<Reservation> it = pending.iterator(); it.hasNext(); ) {
+            Reservation r = it.next();
+            if (now - r.getDeadline() <= 0)
+                break;
+            if (expire(r))
+                count++;
+        }
+        return count;
+    }
+
+    // runs expireOverdue() every periodMillis on a background thread until close()
+    public synchronized void startExpiryTimer(long periodMillis) {
+        if (expiryTimer != null)
+            return;
+        expiryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reservation-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        expiryTimer.scheduleAtFixedRate(this::expireOverdue, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (expiryTimer != null) {
+            expiryTimer.shutdownNow();
+            expiryTimer = null;
+        }
+    }
+
+    // free seats the engine can still hand out on v, 0 if it isn't registered
+    public int getAvailableSeats(Vehicle v) {
+        SeatLedger ledger = ledgers.get(v.getId());
+        return ledger == null ? 0 : ledger.available();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public String getStats() {
+        return "Reserved: " + reserved.sum() + ", Confirmed: " + confirmed.sum() + ", Released: " + released.sum()
+                + ", Expired: " + expired.sum() + ", Rejected: " + rejected.sum() + ", Pending: " + pending.size();
+    }
+
+    private Reservation tryReserve(SeatLedger ledger, int seats, long timeoutMillis) {
+        if (!ledger.take(seats))
+            return null;
+        index.reindex(ledger);
+        long deadline = clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Reservation r = new Reservation(nextId.getAndIncrement(), ledger, seats, deadline);
+        pending.add(r);
+        reserved.increment();
+        return r;
+    }
+
+    private boolean expire(Reservation r) {
+        if (!r.moveTo(Reservation.State.PENDING, Reservation.State.EXPIRED))
+            return false;
+        pending.remove(r);
+        giveBack(r.getLedger(), r.getSeats());
+        expired.increment();
+        return true;
+    }
+
+    private void giveBack(SeatLedger ledger, int seats) {
+        ledger.giveBack(seats);
+        index.reindex(ledger);
+    }
+
+    private static void checkSeats(int seats) throws InvalidOperationException {
+        if (seats <= 0)
+            throw new InvalidOperationException("Seat count must be positive");
+    }
+}
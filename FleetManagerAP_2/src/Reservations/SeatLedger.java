@@ -0,0 +1,49 @@
+package Reservations;
+
+import Interfaces.PassengerCarrier;
+import Vehicles.Vehicle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// free seats of one vehicle as far as the reservation engine knows: capacity minus the passengers on
+// board when it was registered minus every seat held or confirmed since. taking and returning seats is a
+// CAS on one counter, so bookings on different vehicles never touch shared state and bookings on the
+// same vehicle never lock for the seats. the ledger's own lock is only taken by FreeSeatIndex, when the
+// count crosses a power of two
+final class SeatLedger {
+    final Vehicle vehicle;
+    final PassengerCarrier carrier;
+    private final AtomicInteger available;
+
+    // place in FreeSeatIndex, only changed under this ledger's lock. read without it to skip the lock
+    // when the place is still right
+    volatile int bucket = FreeSeatIndex.NONE;
+    volatile boolean retired;
+
+    SeatLedger(Vehicle vehicle) {
+        this.vehicle = vehicle;
+        this.carrier = (PassengerCarrier) vehicle;
+        int free;
+        synchronized (vehicle) {
+            free = carrier.getPassengerCapacity() - carrier.getCurrentPassengers();
+        }
+        this.available = new AtomicInteger(Math.max(0, free));
+    }
+
+    int available() {
+        return available.get();
+    }
+
+    // false, and nothing taken, if fewer than seats are free
+    boolean take(int seats) {
+        for (int free = available.get(); free >= seats; free = available.get()) {
+            if (available.compareAndSet(free, free - seats))
+                return true;
+        }
+        return false;
+    }
+
+    void giveBack(int seats) {
+        available.addAndGet(seats);
+    }
+}
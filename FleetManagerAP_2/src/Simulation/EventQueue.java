@@ -0,0 +1,116 @@
+package Simulation;
+
+import java.util.Arrays;
+
+// pending simulation events as a 4-ary min heap over parallel primitive arrays: no object per event, and
+// a sift only touches a few cache lines. ordered by time, then by insertion order so events due at the
+// same moment run first in first out and a run is repeatable
+final class EventQueue {
+    private double[] times;
+    private long[] seqs;
+    private int[] vehicles;
+    private byte[] kinds;
+    private int size;
+    private long nextSeq;
+
+    EventQueue(int capacity) {
+        capacity = Math.max(capacity, 16);
+        times = new double[capacity];
+        seqs = new long[capacity];
+        vehicles = new int[capacity];
+        kinds = new byte[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(double time, int vehicle, byte kind) {
+        if (size == times.length)
+            grow();
+        siftUp(size++, time, nextSeq++, vehicle, kind);
+    }
+
+    // the peek methods read the earliest event, only valid while the queue isn't empty
+    double peekTime() {
+        return times[0];
+    }
+
+    int peekVehicle() {
+        return vehicles[0];
+    }
+
+    byte peekKind() {
+        return kinds[0];
+    }
+
+    void pop() {
+        int last = --size;
+        if (last > 0)
+            siftDown(0, times[last], seqs[last], vehicles[last], kinds[last]);
+    }
+
+    private void siftUp(int i, double time, long seq, int vehicle, byte kind) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 2;
+            if (!before(time, seq, parent))
+                break;
+            move(parent, i);
+            i = parent;
+        }
+        set(i, time, seq, vehicle, kind);
+    }
+
+    private void siftDown(int i, double time, long seq, int vehicle, byte kind) {
+        while (true) {
+            int first = (i << 2) + 1;
+            if (first >= size)
+                break;
+            int best = first;
+            int end = Math.min(first + 4, size);
+            for (int c = first + 1; c < end; c++) {
+                if (before(times[c], seqs[c], best))
+                    best = c;
+            }
+            if (!before(times[best], seqs[best], time, seq))
+                break;
+            move(best, i);
+            i = best;
+        }
+        set(i, time, seq, vehicle, kind);
+    }
+
+    private boolean before(double time, long seq, int slot) {
+        return before(time, seq, times[slot], seqs[slot]);
+    }
+
+    private static boolean before(double time, long seq, double otherTime, long otherSeq) {
+        return time < otherTime || (time == otherTime && seq < otherSeq);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        seqs[to] = seqs[from];
+        vehicles[to] = vehicles[from];
+        kinds[to] = kinds[from];
+    }
+
+    private void set(int i, double time, long seq, int vehicle, byte kind) {
+        times[i] = time;
+        seqs[i] = seq;
+        vehicles[i] = vehicle;
+        kinds[i] = kind;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        seqs = Arrays.copyOf(seqs, capacity);
+        vehicles = Arrays.copyOf(vehicles, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+    }
+}
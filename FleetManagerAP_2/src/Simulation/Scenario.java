@@ -0,0 +1,58 @@
+package Simulation;
+
+import CustomExceptions.InvalidOperationException;
+
+// how vehicles behave in a simulation. every vehicle shuttles over the routes in turn (vehicle i starts
+// on route i mod the route count), waits dwellHours at each stop, and takes refuelHours to tank up
+// when it can't make the next trip and maintenanceHours for a service. a refuel tops the tank up to
+// the next trip's fuel plus refuelReserve liters
+public class Scenario {
+    private final double[] routes;
+    private final double dwellHours;
+    private final double refuelHours;
+    private final double maintenanceHours;
+    private final double refuelReserve;
+
+    public Scenario(double[] routes, double dwellHours, double refuelHours, double maintenanceHours,
+                    double refuelReserve) throws InvalidOperationException {
+        if (routes.length == 0)
+            throw new InvalidOperationException("A scenario needs at least one route");
+        for (double d : routes) {
+            if (!(d > 0) || Double.isInfinite(d))
+                throw new InvalidOperationException("Route distance must be positive: " + d);
+        }
+        if (!(dwellHours >= 0) || !(refuelHours >= 0) || !(maintenanceHours >= 0))
+            throw new InvalidOperationException("Stop durations cannot be negative");
+        if (!(refuelReserve > 0))
+            throw new InvalidOperationException("Refuel reserve must be positive");
+        this.routes = routes.clone();
+        this.dwellHours = dwellHours;
+        this.refuelHours = refuelHours;
+        this.maintenanceHours = maintenanceHours;
+        this.refuelReserve = refuelReserve;
+    }
+
+    public int routeCount() {
+        return routes.length;
+    }
+
+    public double getRoute(int i) {
+        return routes[i];
+    }
+
+    public double getDwellHours() {
+        return dwellHours;
+    }
+
+    public double getRefuelHours() {
+        return refuelHours;
+    }
+
+    public double getMaintenanceHours() {
+        return maintenanceHours;
+    }
+
+    public double getRefuelReserve() {
+        return refuelReserve;
+    }
+}
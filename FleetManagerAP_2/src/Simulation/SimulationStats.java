@@ -0,0 +1,76 @@
+package Simulation;
+
+// what happened during a simulation run. counts are events, distance is km travelled and fuel is liters
+// put in by refuel stops
+public class SimulationStats {
+    long events;
+    long departures;
+    long arrivals;
+    long refuelStops;
+    long maintenanceStops;
+    int stranded;
+    double distance;
+    double fuelAdded;
+    double endTime;
+
+    // every event handled, including the stops
+    public long getEvents() {
+        return events;
+    }
+
+    public long getDepartures() {
+        return departures;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getRefuelStops() {
+        return refuelStops;
+    }
+
+    public long getMaintenanceStops() {
+        return maintenanceStops;
+    }
+
+    // vehicles that couldn't leave and can't be refuelled (no tank), they sit out the rest of the run
+    public int getStranded() {
+        return stranded;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getFuelAdded() {
+        return fuelAdded;
+    }
+
+    // simulated hours when the run stopped
+    public double getEndTime() {
+        return endTime;
+    }
+
+    void merge(SimulationStats other) {
+        events += other.events;
+        departures += other.departures;
+        arrivals += other.arrivals;
+        refuelStops += other.refuelStops;
+        maintenanceStops += other.maintenanceStops;
+        stranded += other.stranded;
+        distance += other.distance;
+        fuelAdded += other.fuelAdded;
+        endTime = Math.max(endTime, other.endTime);
+    }
+
+    public String getSummary() {
+        return "Simulated hours: " + endTime + "\n" +
+                "Events: " + events + "\n" +
+                "Departures: " + departures + ", Arrivals: " + arrivals + "\n" +
+                "Refuel stops: " + refuelStops + " (" + fuelAdded + " l)\n" +
+                "Maintenance stops: " + maintenanceStops + "\n" +
+                "Distance: " + distance + " km\n" +
+                "Stranded vehicles: " + stranded;
+    }
+}
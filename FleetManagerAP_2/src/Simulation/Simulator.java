@@ -0,0 +1,200 @@
+package Simulation;
+
+import CustomExceptions.InvalidOperationException;
+import Interfaces.FuelConsumable;
+import Interfaces.Maintainable;
+import Vehicles.Vehicle;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+
+// discrete event simulation of a fleet over time, where move() does a whole journey at once. the clock
+// is in hours and jumps from one event to the next. each vehicle loops depart -> arrive -> dwell ->
+// depart over the scenario's routes:
+// - departing calls tryMove, so fuel and mileage are booked when the vehicle leaves, and a vehicle that
+//   can't make the trip doesn't leave. it makes a refuel stop instead and tries again
+// - the trip takes estimateJourneyTime(distance)
+// - before leaving, a Maintainable vehicle makes a service stop when maintenance is scheduled or it has
+//   done more than MILEAGE_THRESHOLD km since its last service (needsMaintenance stays true past the
+//   threshold forever, performMaintenance doesn't reset the mileage)
+// performMaintenance reports through the vehicle event sink as usual, switch it off for big runs.
+// vehicles don't share anything in this model, so the fleet can be split into groups that each run on
+// their own queue and thread, see runPartitioned
+public class Simulator {
+    private static final byte DEPART = 0;
+    private static final byte ARRIVE = 1;
+    private static final byte REFUELED = 2;
+    private static final byte SERVICED = 3;
+
+    private static final double NANOS_PER_HOUR = 3_600_000_000_000.0;
+
+    private final Vehicle[] vehicles;
+    private final Scenario scenario;
+    private final int firstIndex; // the vehicles' position in the whole fleet, picks their routes
+    private final EventQueue queue;
+
+    private final int[] trips;
+    private final double[] lastService; // mileage at the last service stop
+    private final SimulationStats stats = new SimulationStats();
+    private double now;
+
+    public Simulator(List<? extends Vehicle> vehicles, Scenario scenario) {
+        this(vehicles, scenario, 0);
+    }
+
+    private Simulator(List<? extends Vehicle> vehicles, Scenario scenario, int firstIndex) {
+        this.vehicles = vehicles.toArray(new Vehicle[0]);
+        this.scenario = scenario;
+        this.firstIndex = firstIndex;
+        this.queue = new EventQueue(this.vehicles.length);
+        this.trips = new int[this.vehicles.length];
+        this.lastService = new double[this.vehicles.length];
+        // everyone leaves at hour 0, in list order
+        for (int i = 0; i < this.vehicles.length; i++)
+            queue.push(0, i, DEPART);
+    }
+
+    // simulated hours so far
+    public double getNow() {
+        return now;
+    }
+
+    // the simulated clock in nanoseconds, e.g. for a ReservationEngine that should run on simulated time
+    public LongSupplier nanoClock() {
+        return () -> (long) (now * NANOS_PER_HOUR);
+    }
+
+    public int getPendingEvents() {
+        return queue.size();
+    }
+
+    public SimulationStats getStats() {
+        return stats;
+    }
+
+    // handles every event due up to untilHours and leaves the clock there. can be called again to carry on
+    public SimulationStats run(double untilHours) {
+        EventQueue q = queue;
+        while (!q.isEmpty() && q.peekTime() <= untilHours) {
+            double time = q.peekTime();
+            int vehicle = q.peekVehicle();
+            byte kind = q.peekKind();
+            q.pop();
+            now = time;
+            stats.events++;
+            switch (kind) {
+                case DEPART -> depart(vehicle);
+                case ARRIVE -> arrive(vehicle);
+                case REFUELED -> refueled(vehicle);
+                case SERVICED -> serviced(vehicle);
+                default -> throw new IllegalStateException("Unknown event kind " + kind);
+            }
+        }
+        now = Math.max(now, untilHours);
+        stats.endTime = now;
+        return stats;
+    }
+
+    // splits vehicles into partitions contiguous groups and simulates each on its own thread. every
+    // vehicle ends up exactly as it would after new Simulator(vehicles, scenario).run(untilHours)
+    public static SimulationStats runPartitioned(List<? extends Vehicle> vehicles, Scenario scenario,
+                                                 double untilHours, int partitions) {
+        if (partitions < 1)
+            throw new IllegalArgumentException("Partitions must be at least 1");
+        int n = vehicles.size();
+        partitions = Math.max(1, Math.min(partitions, n));
+        if (partitions == 1)
+            return new Simulator(vehicles, scenario).run(untilHours);
+
+        Simulator[] parts = new Simulator[partitions];
+        for (int p = 0; p < partitions; p++) {
+            int from = (int) ((long) n * p / partitions);
+            int to = (int) ((long) n * (p + 1) / partitions);
+            parts[p] = new Simulator(vehicles.subList(from, to), scenario, from);
+        }
+        ForkJoinPool pool = new ForkJoinPool(partitions);
+        try {
+            pool.submit(() -> Arrays.stream(parts).parallel().forEach(s -> s.run(untilHours))).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        SimulationStats total = new SimulationStats();
+        for (Simulator s : parts)
+            total.merge(s.stats);
+        return total;
+    }
+
+    private void depart(int i) {
+        Vehicle v = vehicles[i];
+        if (needsService(i)) {
+            stats.maintenanceStops++;
+            queue.push(now + scenario.getMaintenanceHours(), i, SERVICED);
+            return;
+        }
+        double distance = route(i);
+        boolean moved;
+        try {
+            moved = v.tryMove(distance);
+        } catch (InvalidOperationException e) {
+            throw new IllegalStateException(e); // scenario routes are always positive
+        }
+        if (moved) {
+            stats.departures++;
+            stats.distance += distance;
+            queue.push(now + v.estimateJourneyTime(distance), i, ARRIVE);
+        } else if (v instanceof FuelConsumable) {
+            stats.refuelStops++;
+            queue.push(now + scenario.getRefuelHours(), i, REFUELED);
+        } else {
+            stats.stranded++;
+        }
+    }
+
+    private void arrive(int i) {
+        stats.arrivals++;
+        trips[i]++;
+        queue.push(now + scenario.getDwellHours(), i, DEPART);
+    }
+
+    // enough for the trip it couldn't make plus the reserve
+    private void refueled(int i) {
+        Vehicle v = vehicles[i];
+        FuelConsumable f = (FuelConsumable) v;
+        double amount;
+        synchronized (v) {
+            double efficiency = v.calculateFuelEfficiency();
+            if (!(efficiency > 0)) {
+                stats.stranded++;
+                return;
+            }
+            amount = Math.max(route(i) / efficiency - f.getFuelLevel(), 0) + scenario.getRefuelReserve();
+            try {
+                f.refuel(amount);
+            } catch (InvalidOperationException e) {
+                throw new IllegalStateException(e); // amount is at least the reserve, which is positive
+            }
+        }
+        stats.fuelAdded += amount;
+        queue.push(now, i, DEPART);
+    }
+
+    private void serviced(int i) {
+        Vehicle v = vehicles[i];
+        ((Maintainable) v).performMaintenance();
+        lastService[i] = v.getCurrentMileage();
+        queue.push(now, i, DEPART);
+    }
+
+    private boolean needsService(int i) {
+        Vehicle v = vehicles[i];
+        return v instanceof Maintainable m && (m.isMaintenanceScheduled()
+                || v.getCurrentMileage() - lastService[i] > Maintainable.MILEAGE_THRESHOLD);
+    }
+
+    private double route(int i) {
+        return scenario.getRoute((firstIndex + i + trips[i]) % scenario.routeCount());
+    }
+}
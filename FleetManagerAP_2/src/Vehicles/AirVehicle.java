@@ -3,6 +3,8 @@ package Vehicles;
 import CustomExceptions.InvalidOperationException;
 
 public abstract class AirVehicle extends Vehicle {
+    // -5%, no traffic
+    public static final double JOURNEY_TIME_FACTOR = 0.95;
 
     private double maxAltitude;
 
@@ -15,7 +17,12 @@ public abstract class AirVehicle extends Vehicle {
     @Override
     public double estimateJourneyTime(double distance){
         double baseTime = distance / getMaxSpeed();
-        return baseTime * 0.95;
+        return baseTime * JOURNEY_TIME_FACTOR;
+    }
+
+    @Override
+    public double getJourneyTimeFactor() {
+        return JOURNEY_TIME_FACTOR;
     }
 
     public double getMaxAltitude() {
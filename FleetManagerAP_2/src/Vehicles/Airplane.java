@@ -1,12 +1,12 @@
 package Vehicles;
 
-import CustomExceptions.InsufficientFuelException;
 import CustomExceptions.InvalidOperationException;
 import CustomExceptions.OverloadException;
 import Interfaces.CargoCarrier;
 import Interfaces.FuelConsumable;
 import Interfaces.Maintainable;
 import Interfaces.PassengerCarrier;
+import Interfaces.VehicleListener;
 
 public class Airplane extends AirVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable {
     private double fuelLevel = 0;
@@ -42,22 +42,38 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     }
 
     @Override
-    public void move(double distance) throws InvalidOperationException {
+    public synchronized void move(double distance) throws InvalidOperationException {
+        if (tryMove(distance))
+            emit(VehicleEvent.Kind.MOVED, distance, getMaxAltitude());
+        else
+            emit(VehicleEvent.Kind.OUT_OF_FUEL, distance);
+    }
+
+    // same as move but returns whether the vehicle moved instead of reporting an event
+    @Override
+    public synchronized boolean tryMove(double distance) throws InvalidOperationException {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         if(distance < 0)
             throw new InvalidOperationException("Distance cannot be negative");
 
         double fuelNeeded = distance / calculateFuelEfficiency();
         if(fuelLevel < fuelNeeded) {
-            System.out.println("Not enough fuel to fly " + distance + " km.");
-            return;
+            return false;
         }
 
         fuelLevel -= fuelNeeded;
+        changed(VehicleListener.Change.FUEL);
 
         // Update mileage using public setter
         setCurrentMileage(getCurrentMileage() + distance);
 
-        System.out.println("Flying at " + getMaxAltitude() + " meters for " + distance + " km.");
+        return true;
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.AIRPLANE;
     }
 
     @Override
@@ -67,37 +83,43 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     // FuelConsumable
     @Override
-    public void refuel(double amount) throws InvalidOperationException {
+    public synchronized void refuel(double amount) throws InvalidOperationException {
         if(amount <= 0)
             throw new InvalidOperationException("Refuel amount must be positive");
         fuelLevel += amount;
+        changed(VehicleListener.Change.FUEL);
     }
 
     @Override
-    public double getFuelLevel() { return fuelLevel; }
+    public synchronized double getFuelLevel() { return fuelLevel; }
 
     @Override
-    public double consumeFuel(double distance) throws InsufficientFuelException {
+    public synchronized double tryConsumeFuel(double distance) {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         double required = distance / calculateFuelEfficiency();
         if(required > fuelLevel)
-            throw new InsufficientFuelException("Not enough fuel");
+            return INSUFFICIENT_FUEL;
         fuelLevel -= required;
+        changed(VehicleListener.Change.FUEL);
         return required;
     }
 
     // PassengerCarrier
     @Override
-    public void boardPassengers(int count) throws OverloadException {
+    public synchronized void boardPassengers(int count) throws OverloadException {
         if(currentPassengers + count > passengerCapacity)
             throw new OverloadException("Too many passengers");
         currentPassengers += count;
+        changed(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
-    public void disembarkPassengers(int count) throws InvalidOperationException {
+    public synchronized void disembarkPassengers(int count) throws InvalidOperationException {
         if(count > currentPassengers)
             throw new InvalidOperationException("Cannot disembark more than present");
         currentPassengers -= count;
+        changed(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
@@ -106,23 +128,25 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     }
 
     @Override
-    public int getCurrentPassengers() {
+    public synchronized int getCurrentPassengers() {
         return currentPassengers;
     }
 
     // CargoCarrier
     @Override
-    public void loadCargo(double weight) throws OverloadException {
+    public synchronized void loadCargo(double weight) throws OverloadException {
         if(currentCargo + weight > cargoCapacity)
             throw new OverloadException("Cargo exceeds capacity");
         currentCargo += weight;
+        changed(VehicleListener.Change.CARGO);
     }
 
     @Override
-    public void unloadCargo(double weight) throws InvalidOperationException {
+    public synchronized void unloadCargo(double weight) throws InvalidOperationException {
         if(weight > currentCargo)
             throw new InvalidOperationException("Cannot unload more than current cargo");
         currentCargo -= weight;
+        changed(VehicleListener.Change.CARGO);
     }
 
     @Override
@@ -131,29 +155,36 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     }
 
     @Override
-    public double getCurrentCargo() {
+    public synchronized double getCurrentCargo() {
         return currentCargo;
     }
 
     // Maintainable
     @Override
-    public void scheduleMaintenance() {
+    public synchronized void scheduleMaintenance() {
         maintenanceNeeded = true;
+        changed(VehicleListener.Change.MAINTENANCE);
+    }
+
+    @Override
+    public synchronized boolean needsMaintenance() {
+        return getCurrentMileage() > MILEAGE_THRESHOLD || maintenanceNeeded;
     }
 
     @Override
-    public boolean needsMaintenance() {
-        return getCurrentMileage() > 10000 || maintenanceNeeded;
+    public synchronized boolean isMaintenanceScheduled() {
+        return maintenanceNeeded;
     }
 
     @Override
-    public void performMaintenance() {
+    public synchronized void performMaintenance() {
         maintenanceNeeded = false;
-        System.out.println("Airplane maintenance completed.");
+        changed(VehicleListener.Change.MAINTENANCE);
+        emit(VehicleEvent.Kind.MAINTENANCE_DONE, 0);
     }
 
     @Override
-    public String toCSV() {
+    public synchronized String toCSV() {
         return "Airplane," + getId() + "," + getModel() + "," + getMaxSpeed() + "," + getCurrentMileage() + "," + getMaxAltitude()+ "," + getFuelLevel() + "," + getPassengerCapacity() + "," + getCurrentPassengers() + "," + getCargoCapacity() + "," + getCurrentCargo();
     }
 
@@ -1,11 +1,11 @@
 package Vehicles;
 
-import CustomExceptions.InsufficientFuelException;
 import CustomExceptions.InvalidOperationException;
 import CustomExceptions.OverloadException;
 import Interfaces.FuelConsumable;
 import Interfaces.Maintainable;
 import Interfaces.PassengerCarrier;
+import Interfaces.VehicleListener;
 
 public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier, Maintainable {
     //properties- initialised already
@@ -43,22 +43,35 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     // this was the specification for the abstract move method to be made in vehicle class-
     // abstract void move(double distance): Updates mileage, prints type-specific movement; throws InvalidOperationException if distance < 0.
 
-    public void move(double distance) throws InvalidOperationException {
+    public synchronized void move(double distance) throws InvalidOperationException {
+        emit(tryMove(distance) ? VehicleEvent.Kind.MOVED : VehicleEvent.Kind.OUT_OF_FUEL, distance);
+    }
+
+    // same as move but returns whether the vehicle moved instead of reporting an event
+    @Override
+    public synchronized boolean tryMove(double distance) throws InvalidOperationException {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         if(distance < 0)
             throw new InvalidOperationException("Distance cannot be negative, enter valid distance: ");
 
         double fuelNeeded = distance / calculateFuelEfficiency(); //since fuel effciency needs to be in km/l form thus- distace/fueleff
         if(fuelLevel < fuelNeeded) {
-            System.out.println("Not enough fuel to drive " + distance + " km.");
-            return;
+            return false;
         }
 
         fuelLevel -= fuelNeeded;
+        changed(VehicleListener.Change.FUEL);
 
         // Update mileage using setter
         setCurrentMileage(getCurrentMileage() + distance);
 
-        System.out.println("Driving on road for " + distance + " km.");
+        return true;
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.CAR;
     }
 
     @Override
@@ -69,23 +82,26 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     //fuelconsumable
 
     @Override
-    public void refuel(double amount) throws InvalidOperationException {
+    public synchronized void refuel(double amount) throws InvalidOperationException {
         if(amount <= 0)
             throw new InvalidOperationException("Refuel amount must be positive");
         fuelLevel += amount;
+        changed(VehicleListener.Change.FUEL);
     }
 
     @Override
-    public double getFuelLevel() {
+    public synchronized double getFuelLevel() {
         return fuelLevel;
     }
 
     @Override
-    public double consumeFuel(double distance)
-            throws InsufficientFuelException {
+    public synchronized double tryConsumeFuel(double distance) {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         double required = distance / calculateFuelEfficiency();
-        if(required > fuelLevel) throw new InsufficientFuelException("Not enough fuel");
+        if(required > fuelLevel) return INSUFFICIENT_FUEL;
         fuelLevel -= required;
+        changed(VehicleListener.Change.FUEL);
         return required;
     }
 
@@ -93,17 +109,19 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
      //MISSING EVEN ONE= complie error
     // PassengerCarrier
     @Override
-    public void boardPassengers(int count) throws OverloadException {
+    public synchronized void boardPassengers(int count) throws OverloadException {
         if(currentPassengers + count > passengerCapacity)
             throw new OverloadException("Too many passengers");
         currentPassengers += count;
+        changed(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
-    public void disembarkPassengers(int count) throws InvalidOperationException {
+    public synchronized void disembarkPassengers(int count) throws InvalidOperationException {
         if(count > currentPassengers)
             throw new InvalidOperationException("Cannot disembark more than present");
         currentPassengers -= count;
+        changed(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
@@ -112,31 +130,38 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     }
 
     @Override
-    public int getCurrentPassengers() {
+    public synchronized int getCurrentPassengers() {
         return currentPassengers;
     }
 
     // Maintainable
     @Override
-    public void scheduleMaintenance() {
+    public synchronized void scheduleMaintenance() {
         maintenanceNeeded = true;
+        changed(VehicleListener.Change.MAINTENANCE);
+    }
+
+    @Override
+    public synchronized boolean needsMaintenance() {
+        return getCurrentMileage() > MILEAGE_THRESHOLD || maintenanceNeeded;
     }
 
     @Override
-    public boolean needsMaintenance() {
-        return getCurrentMileage() > 10000 || maintenanceNeeded;
+    public synchronized boolean isMaintenanceScheduled() {
+        return maintenanceNeeded;
     }
 
     @Override
-    public void performMaintenance() {
+    public synchronized void performMaintenance() {
         maintenanceNeeded = false;
-        System.out.println("Car maintenance completed.");
+        changed(VehicleListener.Change.MAINTENANCE);
+        emit(VehicleEvent.Kind.MAINTENANCE_DONE, 0);
     }
 
 
     //puts vehicle into a csv format line
     @Override
-    public String toCSV() {
+    public synchronized String toCSV() {
         return "Car," + getId() + "," + getModel() + "," + getMaxSpeed() + "," + getCurrentMileage() + "," + getNumWheels() + "," + getFuelLevel() + "," + getPassengerCapacity() + "," + getCurrentPassengers();
     }
 
@@ -1,11 +1,11 @@
 package Vehicles;
 
-import CustomExceptions.InsufficientFuelException;
 import CustomExceptions.InvalidOperationException;
 import CustomExceptions.OverloadException;
 import Interfaces.CargoCarrier;
 import Interfaces.FuelConsumable;
 import Interfaces.Maintainable;
+import Interfaces.VehicleListener;
 
 public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
 
@@ -37,25 +37,38 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
 
 
     @Override
-    public void move(double distance) throws InvalidOperationException {
+    public synchronized void move(double distance) throws InvalidOperationException {
+        emit(tryMove(distance) ? VehicleEvent.Kind.MOVED : VehicleEvent.Kind.OUT_OF_FUEL, distance);
+    }
+
+    // same as move but returns whether the vehicle moved instead of reporting an event
+    @Override
+    public synchronized boolean tryMove(double distance) throws InvalidOperationException {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         if(distance < 0)
             throw new InvalidOperationException("Distance cannot be negative");
 
         // Fuel calculation
         double fuelNeeded = distance / calculateFuelEfficiency();
         if(!hasSail() && fuelLevel < fuelNeeded) {
-            System.out.println("Not enough fuel to sail for " + distance + " km.");
-            return;
-
+            return false;
         }
 
-        if(!hasSail())
+        if(!hasSail()) {
             fuelLevel -= fuelNeeded;
+            changed(VehicleListener.Change.FUEL);
+        }
 
         // Update mileage using public setter
         setCurrentMileage(getCurrentMileage() + distance);
 
-        System.out.println("Sailing with cargo for " + distance + " km.");
+        return true;
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.CARGO_SHIP;
     }
 
 /*
@@ -67,7 +80,7 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
  */
 
     @Override
-    public double calculateFuelEfficiency(){
+    public synchronized double calculateFuelEfficiency(){
         if (hasSail()==true){ //fueled ship means there is no sail thus, if hasSail= true then fuel efficiency=0 cus no fuel needed
             return 0;
         }
@@ -76,59 +89,72 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
 
     // CargoCarrier
     @Override
-    public void loadCargo(double weight) throws OverloadException {
+    public synchronized void loadCargo(double weight) throws OverloadException {
         if(currentCargo + weight > cargoCapacity) throw new OverloadException("Cargo exceeds capacity");
         currentCargo += weight;
+        changed(VehicleListener.Change.CARGO);
     }
 
     @Override
-    public void unloadCargo(double weight) throws InvalidOperationException {
+    public synchronized void unloadCargo(double weight) throws InvalidOperationException {
         if(weight > currentCargo) throw new InvalidOperationException("Cannot unload more than current cargo");
         currentCargo -= weight;
+        changed(VehicleListener.Change.CARGO);
     }
 
     @Override
     public double getCargoCapacity() { return cargoCapacity; }
 
     @Override
-    public double getCurrentCargo() { return currentCargo; }
+    public synchronized double getCurrentCargo() { return currentCargo; }
 
     // Maintainable
     @Override
-    public void scheduleMaintenance() { maintenanceNeeded = true; }
+    public synchronized void scheduleMaintenance() {
+        maintenanceNeeded = true;
+        changed(VehicleListener.Change.MAINTENANCE);
+    }
+
+    @Override
+    public synchronized boolean needsMaintenance() { return getCurrentMileage() > MILEAGE_THRESHOLD || maintenanceNeeded; }
 
     @Override
-    public boolean needsMaintenance() { return getCurrentMileage() > 10000 || maintenanceNeeded; }
+    public synchronized boolean isMaintenanceScheduled() { return maintenanceNeeded; }
 
     @Override
-    public void performMaintenance() {
+    public synchronized void performMaintenance() {
         maintenanceNeeded = false;
-        System.out.println("Cargo ship maintenance completed.");
+        changed(VehicleListener.Change.MAINTENANCE);
+        emit(VehicleEvent.Kind.MAINTENANCE_DONE, 0);
     }
 
     // FuelConsumable (only if not sail-powered)
     @Override
-    public void refuel(double amount) throws InvalidOperationException {
+    public synchronized void refuel(double amount) throws InvalidOperationException {
         if(hasSail()) return; // sails don't use fuel
         if(amount <= 0) throw new InvalidOperationException("Refuel amount must be positive");
         fuelLevel += amount;
+        changed(VehicleListener.Change.FUEL);
     }
 
     @Override
-    public double getFuelLevel() { return fuelLevel; }
+    public synchronized double getFuelLevel() { return fuelLevel; }
 
     @Override
-    public double consumeFuel(double distance) throws InsufficientFuelException {
+    public synchronized double tryConsumeFuel(double distance) {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         if(hasSail()) return 0; // sails don't use fuel
         double required = distance / calculateFuelEfficiency();
-        if(required > fuelLevel) throw new InsufficientFuelException("Not enough fuel");
+        if(required > fuelLevel) return INSUFFICIENT_FUEL;
         fuelLevel -= required;
+        changed(VehicleListener.Change.FUEL);
         return required;
     }
 
 
     @Override
-    public String toCSV() {
+    public synchronized String toCSV() {
         return "CargoShip," + getId() + "," + getModel() + "," + getMaxSpeed() + "," +
                 getCurrentMileage() + "," + hasSail() + ","+ getCargoCapacity() + "," +
                 getCurrentCargo() + ","  + getFuelLevel();
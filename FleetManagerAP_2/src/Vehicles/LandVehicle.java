@@ -3,6 +3,9 @@ package Vehicles;
 import CustomExceptions.InvalidOperationException;
 
 public abstract class LandVehicle extends Vehicle {
+    // +10% for traffic
+    public static final double JOURNEY_TIME_FACTOR = 1.1;
+
     private int numWheels;
 
     // Constructor- call super initialise numWheels- constructor has both vehicle and landvehicle attributes
@@ -20,7 +23,12 @@ public abstract class LandVehicle extends Vehicle {
     @Override
     public double estimateJourneyTime(double distance) {
         double baseTime = distance / getMaxSpeed();
-        return baseTime * 1.1; // +10% for traffic
+        return baseTime * JOURNEY_TIME_FACTOR;
+    }
+
+    @Override
+    public double getJourneyTimeFactor() {
+        return JOURNEY_TIME_FACTOR;
     }
 
     //since we need to keep move and calfueleff as abstract- no more overriding- abstract methods inherited directly form vehicle class
@@ -1,11 +1,11 @@
 package Vehicles;
 
-import CustomExceptions.InsufficientFuelException;
 import CustomExceptions.InvalidOperationException;
 import CustomExceptions.OverloadException;
 import Interfaces.CargoCarrier;
 import Interfaces.FuelConsumable;
 import Interfaces.Maintainable;
+import Interfaces.VehicleListener;
 
 
 public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable {
@@ -34,68 +34,92 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
 
 
     @Override
-    public void move(double distance) throws InvalidOperationException {
+    public synchronized void move(double distance) throws InvalidOperationException {
+        emit(tryMove(distance) ? VehicleEvent.Kind.MOVED : VehicleEvent.Kind.OUT_OF_FUEL, distance);
+    }
+
+    // same as move but returns whether the vehicle moved instead of reporting an event
+    @Override
+    public synchronized boolean tryMove(double distance) throws InvalidOperationException {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         if(distance < 0)
             throw new InvalidOperationException("Distance cannot be negative");
 
         double efficiency = calculateFuelEfficiency();
         double fuelNeeded = distance / efficiency;
         if(fuelLevel < fuelNeeded) {
-            System.out.println("Not enough fuel to haul cargo for " + distance + " km.");
-            return;
+            return false;
         }
 
         fuelLevel -= fuelNeeded;
+        changed(VehicleListener.Change.FUEL);
 
         // Update mileage using public setter
         setCurrentMileage(getCurrentMileage() + distance);
 
-        System.out.println("Hauling cargo for " + distance + " km.");
+        return true;
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.TRUCK;
     }
 
     @Override
-    public double calculateFuelEfficiency() {
+    public synchronized double calculateFuelEfficiency() {
+        return efficiencyAt(currentCargo, cargoCapacity);
+    }
+
+    // a truck's efficiency at a given load, for planning loads that aren't on board yet
+    public static double efficiencyAt(double cargo, double capacity) {
         // 10% reduction if >50% loaded
-        if(currentCargo > (cargoCapacity / 2)) //if curr cargo is >50% then fuel efficiency is 8km/l-0.1*8 else return set fuel cap= 8km/l
+        if(cargo > (capacity / 2)) //if curr cargo is >50% then fuel efficiency is 8km/l-0.1*8 else return set fuel cap= 8km/l
             return 8.0 * 0.9;
         return 8.0;
     }
 
     // FuelConsumable
     @Override
-    public void refuel(double amount) throws InvalidOperationException {
+    public synchronized void refuel(double amount) throws InvalidOperationException {
         if(amount <= 0)
             throw new InvalidOperationException("Refuel amount must be positive");
         fuelLevel += amount;
+        changed(VehicleListener.Change.FUEL);
     }
 
     @Override
-    public double getFuelLevel() {
+    public synchronized double getFuelLevel() {
         return fuelLevel;
     }
 
     @Override
-    public double consumeFuel(double distance) throws InsufficientFuelException {
+    public synchronized double tryConsumeFuel(double distance) {
+        if(Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         double required = distance / calculateFuelEfficiency();
         if(required > fuelLevel)
-            throw new InsufficientFuelException("Not enough fuel");
+            return INSUFFICIENT_FUEL;
         fuelLevel -= required;
+        changed(VehicleListener.Change.FUEL);
         return required;
     }
 
     // CargoCarrier
     @Override
-    public void loadCargo(double weight) throws OverloadException {
+    public synchronized void loadCargo(double weight) throws OverloadException {
         if(currentCargo + weight > cargoCapacity)
             throw new OverloadException("Cargo exceeds capacity");
         currentCargo += weight;
+        changed(VehicleListener.Change.CARGO);
     }
 
     @Override
-    public void unloadCargo(double weight) throws InvalidOperationException {
+    public synchronized void unloadCargo(double weight) throws InvalidOperationException {
         if(weight > currentCargo)
             throw new InvalidOperationException("Cannot unload more than current cargo");
         currentCargo -= weight;
+        changed(VehicleListener.Change.CARGO);
     }
 
     @Override
@@ -104,29 +128,36 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
     }
 
     @Override
-    public double getCurrentCargo() {
+    public synchronized double getCurrentCargo() {
         return currentCargo;
     }
 
     // Maintainable
     @Override
-    public void scheduleMaintenance() {
+    public synchronized void scheduleMaintenance() {
         maintenanceNeeded = true;
+        changed(VehicleListener.Change.MAINTENANCE);
+    }
+
+    @Override
+    public synchronized boolean needsMaintenance() {
+        return getCurrentMileage() > MILEAGE_THRESHOLD || maintenanceNeeded;
     }
 
     @Override
-    public boolean needsMaintenance() {
-        return getCurrentMileage() > 10000 || maintenanceNeeded;
+    public synchronized boolean isMaintenanceScheduled() {
+        return maintenanceNeeded;
     }
 
     @Override
-    public void performMaintenance() {
+    public synchronized void performMaintenance() {
         maintenanceNeeded = false;
-        System.out.println("Truck maintenance completed.");
+        changed(VehicleListener.Change.MAINTENANCE);
+        emit(VehicleEvent.Kind.MAINTENANCE_DONE, 0);
     }
 
     @Override
-    public String toCSV() {
+    public synchronized String toCSV() {
         return "Truck," + getId() + "," + getModel() + "," + getMaxSpeed() + "," + getCurrentMileage() + "," + getNumWheels() + "," + getFuelLevel() + "," + getCargoCapacity() + "," + getCurrentCargo();
     }
 
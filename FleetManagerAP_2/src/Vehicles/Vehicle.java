@@ -1,12 +1,25 @@
 package Vehicles;
 
 import CustomExceptions.InvalidOperationException;
+import Events.ConsoleEventSink;
+import Events.NoOpEventSink;
+import Interfaces.VehicleEventSink;
+import Interfaces.VehicleListener;
 
 public abstract class Vehicle implements Comparable<Vehicle> {
     private String id;
-    private String model;
-    private double maxSpeed;
+    private volatile String model;
+    private volatile double maxSpeed;
     private double currentMileage;
+    private volatile VehicleListener listener; // set by the fleet that owns this vehicle
+
+    // calculateFuelEfficiency() cached for sorting, NaN = not computed yet. only a truck's efficiency ever
+    // changes (with its load), so a CARGO change is the only thing that clears it
+    private volatile double efficiencyKey = Double.NaN;
+
+    // where move() and performMaintenance() report their outcome, shared by every vehicle.
+    // prints to the console like it always did unless replaced
+    private static volatile VehicleEventSink eventSink = ConsoleEventSink.INSTANCE;
 
     //constructor initialises all fields and checks for valid id- shouldnt be null or empty
     public Vehicle(String id, String model, double maxSpeed, double currentMileage)
@@ -22,7 +35,20 @@ public abstract class Vehicle implements Comparable<Vehicle> {
 
     @Override
     public int compareTo(Vehicle other) {
-        return Double.compare(this.calculateFuelEfficiency(), other.calculateFuelEfficiency());
+        return Double.compare(this.getEfficiencyKey(), other.getEfficiencyKey());
+    }
+
+    // calculateFuelEfficiency() without the virtual call and recomputation once it has been asked for.
+    // computed under the vehicle's lock so it can't race with the cargo change that would invalidate it
+    public final double getEfficiencyKey() {
+        double key = efficiencyKey;
+        if (Double.isNaN(key)) {
+            synchronized (this) {
+                key = calculateFuelEfficiency();
+                efficiencyKey = key;
+            }
+        }
+        return key;
     }
 
     @Override
@@ -57,13 +83,15 @@ public abstract class Vehicle implements Comparable<Vehicle> {
 
 
     // A1 concrete method- getter
-    public double getCurrentMileage() {
+    public synchronized double getCurrentMileage() {
         return currentMileage;
     }
 
-    //setter
-    public void setCurrentMileage(double mileage) {
+    //setter- vehicle state methods synchronize on the vehicle itself so fleets shared between
+    // threads get per-vehicle locking (callers can also synchronize on the vehicle for compound steps)
+    public synchronized void setCurrentMileage(double mileage) {
         this.currentMileage = mileage;
+        changed(VehicleListener.Change.MILEAGE);
     }
 
     //A1 concrete method
@@ -78,24 +106,71 @@ public abstract class Vehicle implements Comparable<Vehicle> {
     }
 
     
-    public void setModel(String model) {
+    public synchronized void setModel(String model) {
 
         this.model = model;
+        changed(VehicleListener.Change.MODEL);
     }
 
-    public void setMaxSpeed(double maxSpeed) {
+    public synchronized void setMaxSpeed(double maxSpeed) {
 
         this.maxSpeed = maxSpeed;
+        changed(VehicleListener.Change.SPEED);
+    }
+
+    public VehicleListener getListener() {
+        return listener;
+    }
+
+    public void setListener(VehicleListener listener) {
+        this.listener = listener;
+    }
+
+    public static VehicleEventSink getEventSink() {
+        return eventSink;
+    }
+
+    // null switches events off
+    public static void setEventSink(VehicleEventSink sink) {
+        eventSink = sink != null ? sink : NoOpEventSink.INSTANCE;
+    }
+
+    //subclasses report move/maintenance outcomes through these instead of printing
+    protected void emit(VehicleEvent.Kind kind, double distance) {
+        emit(kind, distance, 0);
+    }
+
+    protected void emit(VehicleEvent.Kind kind, double distance, double altitude) {
+        VehicleEventSink sink = eventSink;
+        if (sink.isEnabled())
+            sink.accept(new VehicleEvent(id, getType(), kind, distance, altitude));
+    }
+
+    //subclasses call this after every state change
+    protected void changed(VehicleListener.Change change) {
+        if (change == VehicleListener.Change.CARGO)
+            efficiencyKey = Double.NaN;
+        VehicleListener l = listener;
+        if (l != null)
+            l.vehicleChanged(this, change);
     }
 
 
     //abstract methods from assignment 1- abstract methods dont return anything like concrete methods
     public abstract void move(double distance) throws InvalidOperationException;
 
+    //like move but silent- returns false (and changes nothing) when there isn't enough fuel
+    public abstract boolean tryMove(double distance) throws InvalidOperationException;
+
     public abstract double calculateFuelEfficiency();
 
+    public abstract VehicleType getType();
+
     public abstract double estimateJourneyTime(double distance);
 
+    // what estimateJourneyTime multiplies distance / max speed by, one value per domain (land, air, water)
+    public abstract double getJourneyTimeFactor();
+
     public abstract String toCSV();
 
     public void setFuelEfficiency(double v) {
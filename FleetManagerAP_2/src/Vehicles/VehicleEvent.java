@@ -0,0 +1,86 @@
+package Vehicles;
+
+// one outcome reported by a vehicle instead of a console line. only plain values are kept, so a sink can
+// format (or drop) it later on another thread without touching the vehicle or its lock
+public final class VehicleEvent {
+
+    public enum Kind {
+        MOVED,
+        OUT_OF_FUEL,
+        MAINTENANCE_DONE
+    }
+
+    private final String vehicleId;
+    private final VehicleType vehicleType;
+    private final Kind kind;
+    private final double distance;
+    private final double altitude;
+    private final long timestamp;
+
+    public VehicleEvent(String vehicleId, VehicleType vehicleType, Kind kind, double distance, double altitude) {
+        this.vehicleId = vehicleId;
+        this.vehicleType = vehicleType;
+        this.kind = kind;
+        this.distance = distance;
+        this.altitude = altitude;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public String getVehicleId() {
+        return vehicleId;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // km asked for, 0 for maintenance
+    public double getDistance() {
+        return distance;
+    }
+
+    // cruising altitude for airplanes, 0 for everything else
+    public double getAltitude() {
+        return altitude;
+    }
+
+    // System.currentTimeMillis() when the event happened
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // the exact line the vehicle used to print
+    public String message() {
+        if (kind == Kind.MAINTENANCE_DONE) {
+            return switch (vehicleType) {
+                case CAR -> "Car maintenance completed.";
+                case TRUCK -> "Truck maintenance completed.";
+                case BUS -> "Bus maintenance completed.";
+                case AIRPLANE -> "Airplane maintenance completed.";
+                case CARGO_SHIP -> "Cargo ship maintenance completed.";
+            };
+        }
+        boolean moved = kind == Kind.MOVED;
+        return switch (vehicleType) {
+            case CAR -> moved ? "Driving on road for " + distance + " km."
+                    : "Not enough fuel to drive " + distance + " km.";
+            case TRUCK -> moved ? "Hauling cargo for " + distance + " km."
+                    : "Not enough fuel to haul cargo for " + distance + " km.";
+            case BUS -> moved ? "Transporting passengers and cargo for " + distance + " km."
+                    : "Not enough fuel to transport passengers and cargo for " + distance + " km.";
+            case AIRPLANE -> moved ? "Flying at " + altitude + " meters for " + distance + " km."
+                    : "Not enough fuel to fly " + distance + " km.";
+            case CARGO_SHIP -> moved ? "Sailing with cargo for " + distance + " km."
+                    : "Not enough fuel to sail for " + distance + " km.";
+        };
+    }
+
+    @Override
+    public String toString() {
+        return vehicleId + " " + kind + ": " + message();
+    }
+}
@@ -0,0 +1,39 @@
+package Vehicles;
+
+// concrete vehicle kinds- label matches the first column of the CSV format, ordinal doubles as a compact type tag
+public enum VehicleType {
+    CAR("Car"),
+    TRUCK("Truck"),
+    BUS("Bus"),
+    AIRPLANE("Airplane"),
+    CARGO_SHIP("CargoShip");
+
+    private static final VehicleType[] BY_TAG = values();
+
+    private final String label;
+
+    VehicleType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public byte tag() {
+        return (byte) ordinal();
+    }
+
+    public static VehicleType fromTag(byte tag) {
+        return BY_TAG[tag];
+    }
+
+    // case insensitive, returns null for unknown names
+    public static VehicleType fromLabel(String label) {
+        for (VehicleType t : BY_TAG) {
+            if (t.label.equalsIgnoreCase(label))
+                return t;
+        }
+        return null;
+    }
+}
@@ -3,6 +3,9 @@ package Vehicles;
 import CustomExceptions.InvalidOperationException;
 
 public abstract class WaterVehicle extends Vehicle {
+    // +15% for currents and docking
+    public static final double JOURNEY_TIME_FACTOR = 1.15;
+
     private boolean hasSail; //will affect fuel efficiency
 
     public WaterVehicle(String id, String model, double maxSpeed, double currentMileage, boolean hasSail)
@@ -16,7 +19,12 @@ public abstract class WaterVehicle extends Vehicle {
     @Override
     public double estimateJourneyTime(double distance) {
         double baseTime = distance / getMaxSpeed();
-        return baseTime * 1.15;
+        return baseTime * JOURNEY_TIME_FACTOR;
+    }
+
+    @Override
+    public double getJourneyTimeFactor() {
+        return JOURNEY_TIME_FACTOR;
     }
 
     /*
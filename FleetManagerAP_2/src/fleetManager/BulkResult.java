@@ -0,0 +1,96 @@
+package fleetManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// aggregate outcome of a fleet wide command like FleetManager.refuelAll: how many capable vehicles were
+// looked at, how many actually changed, and the total amount moved (liters, kg or passengers depending
+// on the command). vehicles that fail keep the command going, their messages are collected instead
+public class BulkResult {
+    private final int eligible;
+    private final int touched;
+    private final double total;
+    private final List<String> errors;
+
+    BulkResult(int eligible, int touched, double total, List<String> errors) {
+        this.eligible = eligible;
+        this.touched = touched;
+        this.total = total;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    // vehicles with the capability the command needs (and matching its filter, if any)
+    public int getEligible() {
+        return eligible;
+    }
+
+    // vehicles the command changed
+    public int getTouched() {
+        return touched;
+    }
+
+    // eligible vehicles that didn't need anything or can't take it (a sail ship has no tank)
+    public int getSkipped() {
+        return eligible - touched - errors.size();
+    }
+
+    public int getFailed() {
+        return errors.size();
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    // "id: message" per failed vehicle
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return touched + " of " + eligible + " vehicles changed, total " + total
+                + (errors.isEmpty() ? "" : ", " + errors.size() + " failed");
+    }
+
+    // per thread running totals, merged at the end of the parallel pass
+    static final class Tally {
+        private int eligible;
+        private int touched;
+        private double total;
+        private List<String> errors;
+
+        void touched(double amount) {
+            eligible++;
+            touched++;
+            total += amount;
+        }
+
+        void skipped() {
+            eligible++;
+        }
+
+        void failed(String id, String message) {
+            eligible++;
+            if (errors == null)
+                errors = new ArrayList<>();
+            errors.add(id + ": " + message);
+        }
+
+        void merge(Tally other) {
+            eligible += other.eligible;
+            touched += other.touched;
+            total += other.total;
+            if (other.errors != null) {
+                if (errors == null)
+                    errors = new ArrayList<>();
+                errors.addAll(other.errors);
+            }
+        }
+
+        BulkResult result() {
+            return new BulkResult(eligible, touched, total, errors == null ? new ArrayList<>() : errors);
+        }
+    }
+}
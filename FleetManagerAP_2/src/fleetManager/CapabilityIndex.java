@@ -0,0 +1,54 @@
+package fleetManager;
+
+import Vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the vehicles that implement one capability interface (FuelConsumable, CargoCarrier...), packed in a
+// DenseList so a capability wide loop walks only the vehicles it applies to. the instanceof test happens
+// once, when the vehicle joins the fleet. kept in step by FleetManager's membership hooks
+class CapabilityIndex<C> {
+    private final Class<C> capability;
+    private final DenseList<Vehicle> members = new DenseList<>();
+    private final List<Vehicle> view = members.view();
+
+    CapabilityIndex(Class<C> capability) {
+        this.capability = capability;
+    }
+
+    Class<C> capability() {
+        return capability;
+    }
+
+    synchronized void add(Vehicle v) {
+        if (capability.isInstance(v))
+            members.add(v);
+    }
+
+    synchronized void remove(Vehicle v) {
+        members.remove(v);
+    }
+
+    synchronized int size() {
+        return members.size();
+    }
+
+    // live read only view, only safe while nobody else is changing the fleet. the order is the order the
+    // vehicles were added, until a removal moves the last one into the gap
+    List<Vehicle> view() {
+        return view;
+    }
+
+    synchronized List<Vehicle> snapshot() {
+        return members.copy();
+    }
+
+    // same vehicles, typed as the capability
+    synchronized List<C> typedSnapshot() {
+        List<C> result = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++)
+            result.add(capability.cast(members.get(i)));
+        return result;
+    }
+}
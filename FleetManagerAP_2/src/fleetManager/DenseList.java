@@ -0,0 +1,76 @@
+package fleetManager;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// array backed set with O(1) add, remove and membership test. removal moves the last element into
+// the hole, so elements stay in insertion order only until the first removal. not thread safe
+class DenseList<T> {
+    private Object[] items = new Object[16];
+    private int size;
+    private final Map<T, Integer> slots = new IdentityHashMap<>();
+
+    // false if it is already in the list
+    boolean add(T item) {
+        if (slots.containsKey(item))
+            return false;
+        if (size == items.length)
+            items = Arrays.copyOf(items, size * 2);
+        slots.put(item, size);
+        items[size++] = item;
+        return true;
+    }
+
+    boolean remove(T item) {
+        Integer slot = slots.remove(item);
+        if (slot == null)
+            return false;
+        int last = --size;
+        if (slot != last) {
+            @SuppressWarnings("unchecked")
+            T moved = (T) items[last];
+            items[slot] = moved;
+            slots.put(moved, slot);
+        }
+        items[last] = null;
+        return true;
+    }
+
+    boolean contains(T item) {
+        return slots.containsKey(item);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        return (T) items[index];
+    }
+
+    // read only live view
+    List<T> view() {
+        return new AbstractList<>() {
+            @Override
+            public T get(int index) {
+                return DenseList.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    List<T> copy() {
+        return (List<T>) List.of(Arrays.copyOf(items, size));
+    }
+}
@@ -0,0 +1,256 @@
+package fleetManager;
+
+import Interfaces.CargoCarrier;
+import Interfaces.FuelConsumable;
+import Interfaces.PassengerCarrier;
+import Interfaces.VehicleListener;
+import Vehicles.Vehicle;
+import Vehicles.VehicleType;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// struct-of-arrays copy of the fleet used for analytics: type tag, max speed, mileage, fuel, cargo,
+// passengers and fuel efficiency, each in its own primitive column, so fleet wide scans (report totals,
+// fastest/slowest, efficiency order, fuel/cargo/passenger totals) are tight loops over arrays instead of
+// pointer chasing and a virtual call per vehicle. vehicles write through to their slot via the fleet's
+// VehicleListener, removal swaps the last slot into the hole so the columns stay dense. seq keeps the
+// fleet order the slots lose, for breaking ties the way a scan of the fleet would
+class FleetColumns {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Vehicle[] vehicles = new Vehicle[INITIAL_CAPACITY];
+    private byte[] type = new byte[INITIAL_CAPACITY];
+    private double[] maxSpeed = new double[INITIAL_CAPACITY];
+    private double[] mileage = new double[INITIAL_CAPACITY];
+    private double[] fuel = new double[INITIAL_CAPACITY];
+    private double[] cargo = new double[INITIAL_CAPACITY];
+    private int[] passengers = new int[INITIAL_CAPACITY];
+    private double[] efficiency = new double[INITIAL_CAPACITY];
+    private long[] seq = new long[INITIAL_CAPACITY];
+    private long nextSeq;
+    private int size;
+
+    private final Map<Vehicle, Integer> slots = new IdentityHashMap<>();
+
+    // values are read under the vehicle's lock (so they are one consistent state) and before taking the
+    // column lock- vehicle callbacks arrive with the vehicle's lock held, so the column lock must never be
+    // held while waiting on a vehicle
+    void add(Vehicle v) {
+        byte t;
+        double speed;
+        double miles;
+        double f;
+        double c;
+        int p;
+        double eff;
+        synchronized (v) {
+            t = v.getType().tag();
+            speed = v.getMaxSpeed();
+            miles = v.getCurrentMileage();
+            f = v instanceof FuelConsumable fc ? fc.getFuelLevel() : 0;
+            c = v instanceof CargoCarrier cc ? cc.getCurrentCargo() : 0;
+            p = v instanceof PassengerCarrier pc ? pc.getCurrentPassengers() : 0;
+            eff = v.calculateFuelEfficiency();
+        }
+
+        synchronized (this) {
+            if (slots.containsKey(v))
+                return;
+            if (size == vehicles.length)
+                grow();
+            int s = size++;
+            slots.put(v, s);
+            vehicles[s] = v;
+            type[s] = t;
+            maxSpeed[s] = speed;
+            mileage[s] = miles;
+            fuel[s] = f;
+            cargo[s] = c;
+            passengers[s] = p;
+            efficiency[s] = eff;
+            seq[s] = nextSeq++;
+        }
+    }
+
+    synchronized void remove(Vehicle v) {
+        Integer slot = slots.remove(v);
+        if (slot == null)
+            return;
+        int s = slot;
+        int last = --size;
+        if (s != last) {
+            vehicles[s] = vehicles[last];
+            type[s] = type[last];
+            maxSpeed[s] = maxSpeed[last];
+            mileage[s] = mileage[last];
+            fuel[s] = fuel[last];
+            cargo[s] = cargo[last];
+            passengers[s] = passengers[last];
+            efficiency[s] = efficiency[last];
+            seq[s] = seq[last];
+            slots.put(vehicles[s], s);
+        }
+        vehicles[last] = null;
+    }
+
+    void update(Vehicle v, VehicleListener.Change change) {
+        switch (change) {
+            case MILEAGE -> {
+                double miles;
+                synchronized (v) {
+                    miles = v.getCurrentMileage();
+                }
+                synchronized (this) {
+                    int s = slotOf(v);
+                    if (s >= 0) mileage[s] = miles;
+                }
+            }
+            case FUEL -> {
+                double f;
+                synchronized (v) {
+                    f = v instanceof FuelConsumable fc ? fc.getFuelLevel() : 0;
+                }
+                synchronized (this) {
+                    int s = slotOf(v);
+                    if (s >= 0) fuel[s] = f;
+                }
+            }
+            case CARGO -> {
+                // a truck's efficiency depends on how loaded it is
+                double c;
+                double eff;
+                synchronized (v) {
+                    c = v instanceof CargoCarrier cc ? cc.getCurrentCargo() : 0;
+                    eff = v.calculateFuelEfficiency();
+                }
+                synchronized (this) {
+                    int s = slotOf(v);
+                    if (s < 0) return;
+                    cargo[s] = c;
+                    efficiency[s] = eff;
+                }
+            }
+            case PASSENGERS -> {
+                int p;
+                synchronized (v) {
+                    p = v instanceof PassengerCarrier pc ? pc.getCurrentPassengers() : 0;
+                }
+                synchronized (this) {
+                    int s = slotOf(v);
+                    if (s >= 0) passengers[s] = p;
+                }
+            }
+            case SPEED -> {
+                double speed;
+                synchronized (v) {
+                    speed = v.getMaxSpeed();
+                }
+                synchronized (this) {
+                    int s = slotOf(v);
+                    if (s >= 0) maxSpeed[s] = speed;
+                }
+            }
+            default -> {
+                // model and maintenance aren't stored in a column
+            }
+        }
+    }
+
+    // gives the vehicles new sequence numbers in the given order, after the fleet has been reordered.
+    // vehicles not in the store are skipped
+    synchronized void resequence(Iterable<Vehicle> fleetOrder) {
+        for (Vehicle v : fleetOrder) {
+            int s = slotOf(v);
+            if (s >= 0)
+                seq[s] = nextSeq++;
+        }
+    }
+
+    // vehicle count per type tag and summed efficiency, the scan behind generateReport()
+    synchronized FleetStats.Totals totals(int maintenanceCount) {
+        int[] counts = new int[VehicleType.values().length];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            counts[type[i]]++;
+            total += efficiency[i];
+        }
+        return new FleetStats.Totals(counts, total, maintenanceCount);
+    }
+
+    // highest (or lowest) max speed, ties to the vehicle first in fleet order like Collections.max/min.
+    // null when empty
+    synchronized Vehicle fastest() {
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (best < 0 || maxSpeed[i] > maxSpeed[best] || (maxSpeed[i] == maxSpeed[best] && seq[i] < seq[best]))
+                best = i;
+        }
+        return best < 0 ? null : vehicles[best];
+    }
+
+    synchronized Vehicle slowest() {
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (best < 0 || maxSpeed[i] < maxSpeed[best] || (maxSpeed[i] == maxSpeed[best] && seq[i] < seq[best]))
+                best = i;
+        }
+        return best < 0 ? null : vehicles[best];
+    }
+
+    // efficiency of each of the given vehicles, NaN for ones not in the store
+    synchronized double[] efficiencies(Vehicle[] order) {
+        double[] keys = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            int s = slotOf(order[i]);
+            keys[i] = s < 0 ? Double.NaN : efficiency[s];
+        }
+        return keys;
+    }
+
+    synchronized double totalFuel() {
+        double total = 0;
+        for (int i = 0; i < size; i++)
+            total += fuel[i];
+        return total;
+    }
+
+    synchronized double totalCargo() {
+        double total = 0;
+        for (int i = 0; i < size; i++)
+            total += cargo[i];
+        return total;
+    }
+
+    synchronized long totalPassengers() {
+        long total = 0;
+        for (int i = 0; i < size; i++)
+            total += passengers[i];
+        return total;
+    }
+
+    // copies of the columns FuelBatch works on, in slot order
+    synchronized FuelBatch fuelBatch() {
+        return new FuelBatch(Arrays.copyOf(vehicles, size), Arrays.copyOf(fuel, size),
+                Arrays.copyOf(efficiency, size), Arrays.copyOf(mileage, size), size);
+    }
+
+    private int slotOf(Vehicle v) {
+        Integer s = slots.get(v);
+        return s == null ? -1 : s;
+    }
+
+    private void grow() {
+        int n = vehicles.length * 2;
+        vehicles = Arrays.copyOf(vehicles, n);
+        type = Arrays.copyOf(type, n);
+        maxSpeed = Arrays.copyOf(maxSpeed, n);
+        mileage = Arrays.copyOf(mileage, n);
+        fuel = Arrays.copyOf(fuel, n);
+        cargo = Arrays.copyOf(cargo, n);
+        passengers = Arrays.copyOf(passengers, n);
+        efficiency = Arrays.copyOf(efficiency, n);
+        seq = Arrays.copyOf(seq, n);
+    }
+}
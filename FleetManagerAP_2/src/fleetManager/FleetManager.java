@@ -2,54 +2,206 @@ package fleetManager;
 
 import CustomExceptions.InsufficientFuelException;
 import CustomExceptions.InvalidOperationException;
+import Interfaces.CargoCarrier;
 import Interfaces.FuelConsumable;
 import Interfaces.Maintainable;
+import Interfaces.PassengerCarrier;
+import Interfaces.VehicleListener;
 import Vehicles.*;
+import Persistence.MutationJournal;
 import Persistence.VehicleFactory;
+import Planning.CargoPlan;
+import Planning.CargoPlanner;
+import Planning.JourneyTimeEstimator;
+import Planning.JourneyTimeMatrix;
+import Planning.Shipment;
+import Simulation.Scenario;
+import Simulation.SimulationStats;
+import Simulation.Simulator;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 
 public class FleetManager {
-    private List<Vehicle> fleet = new ArrayList<>();
+    private final VehicleRegistry registry;
 
-    private Set<String> distinctModels = new HashSet<>();
+    private ForkJoinPool journeyPool;
 
+    // memoizes estimateJourneyTimes for repeated route sets
+    private final JourneyTimeEstimator journeyTimes = new JourneyTimeEstimator();
 
-    public void addVehicle(Vehicle v) throws InvalidOperationException {
-        for (Vehicle vehicle : fleet) {
-            if (vehicle.getId().equals(v.getId())) {
-                throw new InvalidOperationException("Vehicle ID already exists: " + v.getId());
+    // every vehicle in the fleet reports its state changes here, see vehicleChanged
+    private final VehicleListener changeListener = this::vehicleChanged;
+
+    // optional columnar copy of the fleet for analytics, null until enableColumnarStore()
+    private volatile FleetColumns columns;
+
+    // running totals for generateReport()
+    private final FleetStats stats = new FleetStats();
+
+    // the fleet split by type for searchByType
+    private final TypeBuckets typeBuckets = new TypeBuckets();
+
+    // the fleet split by capability interface, for loops that only concern e.g. cargo carriers
+    private final CapabilityIndex<FuelConsumable> fuelConsumers = new CapabilityIndex<>(FuelConsumable.class);
+    private final CapabilityIndex<Maintainable> maintainables = new CapabilityIndex<>(Maintainable.class);
+    private final CapabilityIndex<CargoCarrier> cargoCarriers = new CapabilityIndex<>(CargoCarrier.class);
+    private final CapabilityIndex<PassengerCarrier> passengerCarriers =
+            new CapabilityIndex<>(PassengerCarrier.class);
+    private final List<CapabilityIndex<?>> capabilities =
+            List.of(fuelConsumers, maintainables, cargoCarriers, passengerCarriers);
+
+    // the fleet kept sorted by max speed, fuel efficiency and model (case insensitive)
+    private final RankedIndex<Double> speedIndex = new RankedIndex<>(Vehicle::getMaxSpeed, Comparator.naturalOrder());
+    private final RankedIndex<Double> efficiencyIndex =
+            new RankedIndex<>(Vehicle::getEfficiencyKey, Comparator.naturalOrder());
+    private final RankedIndex<String> modelIndex =
+            new RankedIndex<>(Vehicle::getModel, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+
+    // Maintainable vehicles that currently need maintenance
+    private final MaintenanceIndex maintenanceIndex = new MaintenanceIndex();
+    private volatile boolean reportCrossCheck;
+
+    // optional append-only log of every mutation, null until setJournal()
+    private volatile MutationJournal journal;
+
+    public FleetManager() {
+        this(false);
+    }
+
+    // concurrent = true lets several dispatcher threads share the fleet: add/remove are guarded by the
+    // registry lock, fleet wide operations iterate a snapshot, and each vehicle locks only itself
+    // so work on different vehicles never contends
+    public FleetManager(boolean concurrent) {
+        this.registry = new VehicleRegistry(concurrent, new VehicleRegistry.Membership() {
+            @Override
+            public void added(Vehicle v) {
+                vehicleAdded(v);
             }
-        }
-        fleet.add(v);
-        distinctModels.add(v.getModel());
 
+            @Override
+            public void removed(Vehicle v) {
+                vehicleRemoved(v);
+            }
+        });
     }
 
-    public void removeVehicle(String id) throws InvalidOperationException {
-        Vehicle toRemove = null;
-        for (Vehicle vehicle : fleet) {
-            if (vehicle.getId().equals(id)) {
-                toRemove = vehicle;
-                break;
+    public boolean isConcurrent() {
+        return registry.isConcurrent();
+    }
+
+    // keeps a struct-of-arrays copy of the fleet (type tag, speed, mileage, fuel, cargo, passengers,
+    // efficiency) that the report, fastest/slowest lookups, efficiency sort and fleet wide totals scan
+    // instead of walking the vehicle objects. enable it before the fleet is shared between threads
+    public void enableColumnarStore() {
+        if (columns != null)
+            return;
+        FleetColumns store = new FleetColumns();
+        for (Vehicle v : registry.values())
+            store.add(v);
+        columns = store;
+    }
+
+    public boolean isColumnarStoreEnabled() {
+        return columns != null;
+    }
+
+    // from now on every add, remove and vehicle change is recorded in the journal. binding writes a fresh
+    // snapshot of the current fleet, so when restarting run MutationJournal.recover() into a list and
+    // replaceFleet() with it first. null stops journaling. the caller still owns the journal and calls
+    // commit()/close() on it
+    public void setJournal(MutationJournal journal) throws IOException {
+        if (journal != null)
+            journal.bind(this::getFleet);
+        this.journal = journal;
+    }
+
+    private void vehicleAdded(Vehicle v) {
+        v.setListener(changeListener);
+        typeBuckets.add(v);
+        for (CapabilityIndex<?> c : capabilities)
+            c.add(v);
+        speedIndex.add(v);
+        efficiencyIndex.add(v);
+        modelIndex.add(v);
+        stats.add(v);
+        maintenanceIndex.add(v);
+        FleetColumns cols = columns;
+        if (cols != null)
+            cols.add(v);
+        MutationJournal j = journal;
+        if (j != null)
+            j.recordAdd(v);
+    }
+
+    private void vehicleRemoved(Vehicle v) {
+        if (v.getListener() == changeListener)
+            v.setListener(null);
+        typeBuckets.remove(v);
+        for (CapabilityIndex<?> c : capabilities)
+            c.remove(v);
+        speedIndex.remove(v);
+        efficiencyIndex.remove(v);
+        modelIndex.remove(v);
+        stats.remove(v);
+        maintenanceIndex.remove(v);
+        FleetColumns cols = columns;
+        if (cols != null)
+            cols.remove(v);
+        MutationJournal j = journal;
+        if (j != null)
+            j.recordRemove(v);
+    }
+
+    private void vehicleChanged(Vehicle v, VehicleListener.Change change) {
+        switch (change) {
+            case SPEED -> speedIndex.update(v);
+            // only a truck's efficiency moves, with its load
+            case CARGO -> efficiencyIndex.update(v);
+            case MODEL -> {
+                String model = v.getModel();
+                modelIndex.update(v, model);
+                registry.modelChanged(v, model);
+            }
+            default -> {
             }
         }
-        if (toRemove == null)
+        stats.update(v, change);
+        maintenanceIndex.update(v, change);
+        FleetColumns cols = columns;
+        if (cols != null)
+            cols.update(v, change);
+        MutationJournal j = journal;
+        if (j != null)
+            j.recordUpdate(v);
+    }
+
+    public void addVehicle(Vehicle v) throws InvalidOperationException {
+        if (!registry.add(v))
+            throw new InvalidOperationException("Vehicle ID already exists: " + v.getId());
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException {
+        if (registry.remove(id) == null)
             throw new InvalidOperationException("Vehicle with ID " + id + " not found");
-        fleet.remove(toRemove);
-        distinctModels.remove(toRemove.getModel());
+    }
 
+    // returns null if no vehicle has this id
+    public Vehicle getById(String id) {
+        return registry.get(id);
     }
 
 
     public Set<String> getDistinctModels() {
-        return distinctModels;
+        return registry.models();
     }
 
 
     public void startAllJourneys(double distance) {
-        for (Vehicle vehicle : fleet) {
+        for (Vehicle vehicle : registry.values()) {
             try {
                 vehicle.move(distance);
             } catch (InvalidOperationException e) {
@@ -58,25 +210,202 @@ public class FleetManager {
         }
     }
 
+    // parallel version of startAllJourneys- nothing is printed, every vehicle gets a JourneyResult
+    // (in fleet order). parallelism is the number of worker threads, 1 runs on the calling thread
+    public List<JourneyResult> startAllJourneys(double distance, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+
+        List<Vehicle> vehicles = new ArrayList<>(registry.values());
+        JourneyResult[] results = new JourneyResult[vehicles.size()];
+
+        if (parallelism == 1) {
+            for (int i = 0; i < results.length; i++)
+                results[i] = runJourney(vehicles.get(i), distance);
+        } else {
+            journeyPool(parallelism).submit(() ->
+                    IntStream.range(0, results.length).parallel()
+                            .forEach(i -> results[i] = runJourney(vehicles.get(i), distance))
+            ).join();
+        }
+        return Arrays.asList(results);
+    }
+
+    private static JourneyResult runJourney(Vehicle vehicle, double distance) {
+        try {
+            if (vehicle.tryMove(distance))
+                return new JourneyResult(vehicle, JourneyResult.Status.MOVED, null);
+            return new JourneyResult(vehicle, JourneyResult.Status.INSUFFICIENT_FUEL, null);
+        } catch (InvalidOperationException e) {
+            return new JourneyResult(vehicle, JourneyResult.Status.INVALID, e.getMessage());
+        }
+    }
+
+    // every vehicle (rows, fleet order) against every distance (columns) in one go, see JourneyTimeEstimator.
+    // asking again for the same distances with an unchanged fleet returns the cached matrix
+    public JourneyTimeMatrix estimateJourneyTimes(double[] distances) {
+        return journeyTimes.estimate(new ArrayList<>(registry.values()), distances);
+    }
+
+    // pool is kept between ticks and only rebuilt when the requested parallelism changes
+    private synchronized ForkJoinPool journeyPool(int parallelism) {
+        if (journeyPool == null || journeyPool.getParallelism() != parallelism) {
+            if (journeyPool != null)
+                journeyPool.shutdown();
+            journeyPool = new ForkJoinPool(parallelism);
+        }
+        return journeyPool;
+    }
+
+    // frozen copy of the fleet's fuel state for batch ticks, see FuelBatch- apply() moves the vehicles for
+    // real. with the columnar store enabled this is a straight copy of its arrays, otherwise every vehicle
+    // is read once
+    public FuelBatch fuelBatch() {
+        FleetColumns cols = columns;
+        if (cols != null)
+            return cols.fuelBatch();
+
+        List<Vehicle> list = new ArrayList<>(registry.values());
+        int n = list.size();
+        Vehicle[] vehicles = list.toArray(new Vehicle[0]);
+        double[] fuel = new double[n];
+        double[] efficiency = new double[n];
+        double[] mileage = new double[n];
+        for (int i = 0; i < n; i++) {
+            Vehicle v = vehicles[i];
+            synchronized (v) {
+                fuel[i] = v instanceof FuelConsumable f ? f.getFuelLevel() : 0;
+                efficiency[i] = v.calculateFuelEfficiency();
+                mileage[i] = v.getCurrentMileage();
+            }
+        }
+        return new FuelBatch(vehicles, fuel, efficiency, mileage, n);
+    }
+
     public double getTotalFuelConsumption(double distance) {
+        return getTotalFuelConsumption(distance, true);
+    }
+
+    // reportShortfalls = false is the bulk path: vehicles without enough fuel are skipped without a
+    // message, an exception or any allocation. when they are reported the exception skips its stack trace,
+    // only the message is printed. vehicles are visited in fleet order either way
+    public double getTotalFuelConsumption(double distance, boolean reportShortfalls) {
+        if (Double.isNaN(distance))
+            throw new IllegalArgumentException("Distance must be a number");
         double total = 0;
-        for (Vehicle vehicle : fleet) {
-            if (vehicle instanceof FuelConsumable) {
-                FuelConsumable f = (FuelConsumable) vehicle;
-                try {
-                    total += f.consumeFuel(distance);
-                } catch (InsufficientFuelException e) {
-                    System.out.println("Fuel error for vehicle " + vehicle.getId() + ": " + e.getMessage());
-                }
+        for (Vehicle vehicle : registry.values()) {
+            if (!(vehicle instanceof FuelConsumable f))
+                continue;
+            if (!reportShortfalls) {
+                double consumed = f.tryConsumeFuel(distance);
+                if (!FuelConsumable.isInsufficient(consumed))
+                    total += consumed;
+                continue;
+            }
+            try {
+                total += f.consumeFuelInBulk(distance);
+            } catch (InsufficientFuelException e) {
+                System.out.println("Fuel error for vehicle " + vehicle.getId() + ": " + e.getMessage());
             }
         }
         return total;
     }
 
+    // fleet wide commands. each one runs in parallel over the vehicles that have the capability it needs
+    // (from its capability index, not by testing every vehicle), locks one vehicle at a time and returns
+    // the totals.
+    // a vehicle that fails is reported in the result and doesn't stop the others
+
+    public BulkResult refuelAll(double amount) throws InvalidOperationException {
+        return refuelWhere(null, amount);
+    }
+
+    // filter null means every vehicle. it is tested with the vehicle locked
+    public BulkResult refuelWhere(Predicate<? super Vehicle> filter, double amount) throws InvalidOperationException {
+        if (amount <= 0)
+            throw new InvalidOperationException("Refuel amount must be positive");
+        return bulk(FuelConsumable.class, filter, f -> {
+            double before = f.getFuelLevel();
+            f.refuel(amount);
+            return f.getFuelLevel() - before; // 0 for a sail ship
+        });
+    }
+
+    // fills every tank below level up to level, total is the fuel added
+    public BulkResult topUpTo(double level) {
+        return bulk(FuelConsumable.class, null, f -> {
+            double before = f.getFuelLevel();
+            if (before >= level)
+                return 0;
+            f.refuel(level - before);
+            return f.getFuelLevel() - before;
+        });
+    }
+
+    // total is the cargo unloaded in kg
+    public BulkResult unloadAll() {
+        return bulk(CargoCarrier.class, null, c -> {
+            double cargo = c.getCurrentCargo();
+            if (cargo <= 0)
+                return 0;
+            c.unloadCargo(cargo);
+            return cargo;
+        });
+    }
+
+    // total is the number of passengers who got off
+    public BulkResult disembarkAll() {
+        return bulk(PassengerCarrier.class, null, p -> {
+            int passengers = p.getCurrentPassengers();
+            if (passengers <= 0)
+                return 0;
+            p.disembarkPassengers(passengers);
+            return passengers;
+        });
+    }
+
+    // assigns shipments to the fleet's cargo carriers without loading anything yet, see CargoPlanner.
+    // CargoPlan.apply() does the loading
+    public CargoPlan planCargo(List<Shipment> shipments, CargoPlanner.Strategy strategy) {
+        return new CargoPlanner(strategy).plan(members(cargoCarriers), shipments);
+    }
+
+    // runs the fleet through scenario for hours of simulated time, see Simulator. parallelism > 1 splits
+    // the fleet into that many groups simulated on their own threads
+    public SimulationStats simulate(Scenario scenario, double hours, int parallelism) {
+        return Simulator.runPartitioned(new ArrayList<>(registry.values()), scenario, hours, parallelism);
+    }
+
+    // one vehicle's part of a bulk command: returns how much it changed, 0 when there was nothing to do
+    private interface BulkStep<C> {
+        double apply(C capable) throws Exception;
+    }
+
+    private <C> BulkResult bulk(Class<C> capability, Predicate<? super Vehicle> filter, BulkStep<C> step) {
+        List<Vehicle> vehicles = capabilityIndex(capability).snapshot();
+        return vehicles.parallelStream().collect(BulkResult.Tally::new, (tally, v) -> {
+            try {
+                double amount;
+                synchronized (v) {
+                    if (filter != null && !filter.test(v))
+                        return;
+                    amount = step.apply(capability.cast(v));
+                }
+                if (amount > 0)
+                    tally.touched(amount);
+                else
+                    tally.skipped();
+            } catch (Exception e) {
+                tally.failed(v.getId(), e.getMessage());
+            }
+        }, BulkResult.Tally::merge).result();
+    }
+
+    // only visits vehicles that are due, see MaintenanceIndex
     public void maintainAll() {
-        for (Vehicle vehicle : fleet) {
-            if (vehicle instanceof Maintainable) {
-                Maintainable m = (Maintainable) vehicle;
+        for (Vehicle vehicle : maintenanceIndex.snapshot()) {
+            Maintainable m = (Maintainable) vehicle;
+            synchronized (vehicle) {
                 if (m.needsMaintenance()) {
                     m.performMaintenance();
                 }
@@ -84,132 +413,278 @@ public class FleetManager {
         }
     }
 
+    // no scan: returns a read only copy of the type's bucket, empty for unknown type names. within a type
+    // vehicles are in the order they were added, except that a removal moves the last one of that type
+    // into the gap
     public List<Vehicle> searchByType(String typeName) {
-        List<Vehicle> result = new ArrayList<>();
-        String t = typeName.toLowerCase();
-
-        for (Vehicle v : fleet) {
-            if (t.equals("car") && v instanceof Car) result.add(v);
-            else if (t.equals("truck") && v instanceof Truck) result.add(v);
-            else if (t.equals("bus") && v instanceof Bus) result.add(v);
-            else if (t.equals("airplane") && v instanceof Airplane) result.add(v);
-            else if (t.equals("cargoship") && v instanceof CargoShip) result.add(v);
+        VehicleType type = VehicleType.fromLabel(typeName);
+        if (type == null)
+            return Collections.emptyList();
+        return typeBuckets.snapshot(type);
+    }
+
+    // O(1), 0 for unknown type names
+    public int countByType(String typeName) {
+        VehicleType type = VehicleType.fromLabel(typeName);
+        return type == null ? 0 : typeBuckets.count(type);
+    }
+
+    // every vehicle implementing capability (FuelConsumable, Maintainable, CargoCarrier or
+    // PassengerCarrier), as a snapshot typed as that interface. no scan, see CapabilityIndex
+    public <C> List<C> getVehiclesWith(Class<C> capability) {
+        return capabilityIndex(capability).typedSnapshot();
+    }
+
+    public int countWith(Class<?> capability) {
+        return capabilityIndex(capability).size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C> CapabilityIndex<C> capabilityIndex(Class<C> capability) {
+        for (CapabilityIndex<?> c : capabilities) {
+            if (c.capability() == capability)
+                return (CapabilityIndex<C>) c;
         }
-        return result;
+        throw new IllegalArgumentException("No capability index for " + capability.getSimpleName());
+    }
+
+    // what a capability wide loop iterates: the live list, or a copy when other threads may change the fleet
+    private List<Vehicle> members(CapabilityIndex<?> index) {
+        return isConcurrent() ? index.snapshot() : index.view();
     }
 
 
+    // the keys come from the efficiency column when the columnar store is enabled. the indexes and columns
+    // then renumber their vehicles so equal keys keep coming out in the new fleet order
     public void sortFleetByEfficiency() {
-        Collections.sort(fleet);
+        FleetColumns cols = columns;
+        if (cols != null)
+            registry.reorderByKeys(cols::efficiencies);
+        else
+            registry.reorderByKey(Vehicle::getEfficiencyKey);
+        Collection<Vehicle> order = registry.values();
+        speedIndex.resequence(order);
+        efficiencyIndex.resequence(order);
+        modelIndex.resequence(order);
+        if (cols != null)
+            cols.resequence(order);
         System.out.println("Fleet sorted by fuel efficiency successfully!");
     }
 
     public void printFleet() {
-        if (fleet.isEmpty()) {
+        if (registry.isEmpty()) {
             System.out.println("No vehicles in the fleet.");
             return;
         }
-        for (Vehicle v : fleet) {
-            v.displayInfo();
-            System.out.println("Fuel Efficiency: " + v.calculateFuelEfficiency() + " km/l");
-            System.out.println("----------------------------");
+        PrintWriter out = consoleWriter();
+        for (Vehicle v : registry.values()) {
+            out.println(v);
+            out.println("Fuel Efficiency: " + v.calculateFuelEfficiency() + " km/l");
+            out.println("----------------------------");
         }
+        out.flush();
     }
 
+    // debug aid: when on, every generateReport() recounts the fleet and fails if the running totals drifted.
+    // only meaningful while no other thread is changing the fleet
+    public void setReportCrossCheck(boolean enabled) {
+        this.reportCrossCheck = enabled;
+    }
+
+    // O(1)- the totals are kept up to date as vehicles are added, removed, moved, loaded or serviced
     public String generateReport() {
         StringBuilder sb = new StringBuilder();
-        sb.append("Total vehicles: ").append(fleet.size()).append("\n");
-
-        int maintenanceCount = 0;
-        double totalEfficiency = 0;
-
-        int cars = 0, trucks = 0, buses = 0, airplanes = 0, cargoShips = 0;
-
-        for (Vehicle v : fleet) {
-            totalEfficiency += v.calculateFuelEfficiency();
-
-            if (v instanceof Maintainable) {
-                Maintainable m = (Maintainable) v;
-                if (m.needsMaintenance()) {
-                    maintenanceCount++;
-                }
-            }
-
-            if (v instanceof Car) cars++;
-            else if (v instanceof Truck) trucks++;
-            else if (v instanceof Bus) buses++;
-            else if (v instanceof Airplane) airplanes++;
-            else if (v instanceof CargoShip) cargoShips++;
+        int total = registry.size();
+        sb.append("Total vehicles: ").append(total).append("\n");
+
+        FleetStats.Totals totals = stats.totals();
+        FleetColumns cols = columns;
+        if (cols != null)
+            totals = cols.totals(totals.maintenanceCount);
+        if (reportCrossCheck) {
+            FleetStats.Totals recount = FleetStats.recount(registry.values());
+            if (!totals.matches(recount))
+                throw new IllegalStateException("Report totals out of sync: running " + totals + " vs recount " + recount);
         }
 
-        double avgEfficiency = fleet.isEmpty() ? 0 : totalEfficiency / fleet.size();
+        double avgEfficiency = total == 0 ? 0 : totals.totalEfficiency / total;
 
         sb.append("Average fuel efficiency: ").append(avgEfficiency).append(" km/l\n");
-        sb.append("Vehicles needing maintenance: ").append(maintenanceCount).append("\n");
-        sb.append("By type: Cars=").append(cars)
-                .append(", Trucks=").append(trucks)
-                .append(", Buses=").append(buses)
-                .append(", Airplanes=").append(airplanes)
-                .append(", CargoShips=").append(cargoShips).append("\n");
+        sb.append("Vehicles needing maintenance: ").append(totals.maintenanceCount).append("\n");
+        sb.append("By type: Cars=").append(totals.count(VehicleType.CAR))
+                .append(", Trucks=").append(totals.count(VehicleType.TRUCK))
+                .append(", Buses=").append(totals.count(VehicleType.BUS))
+                .append(", Airplanes=").append(totals.count(VehicleType.AIRPLANE))
+                .append(", CargoShips=").append(totals.count(VehicleType.CARGO_SHIP)).append("\n");
 
         return sb.toString();
     }
 
+    // costs O(number of vehicles due), listed in the order they became due
     public List<Vehicle> getVehiclesNeedingMaintenance() {
-        List<Vehicle> result = new ArrayList<>();
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable) {
-                Maintainable m = (Maintainable) v;
-                if (m.needsMaintenance()) {
-                    result.add(v);
-                }
-            }
-        }
-        return result;
+        return maintenanceIndex.snapshot();
+    }
+
+    // vehicles needing maintenance, the furthest past the mileage threshold first
+    public List<Vehicle> getVehiclesByMaintenanceOverdue() {
+        return maintenanceIndex.byOverdue();
     }
 
+    // O(log n) from the speed index, or a scan of the speed column when the columnar store is enabled.
+    // like Collections.max/min, ties go to the vehicle first in fleet order
     public Vehicle getFastestVehicle() {
-        return Collections.max(fleet, Comparator.comparingDouble(Vehicle::getMaxSpeed));
+        FleetColumns cols = columns;
+        return nonEmpty(cols != null ? cols.fastest() : speedIndex.max());
     }
 
     public Vehicle getSlowestVehicle() {
-        return Collections.min(fleet, Comparator.comparingDouble(Vehicle::getMaxSpeed));
+        FleetColumns cols = columns;
+        return nonEmpty(cols != null ? cols.slowest() : speedIndex.min());
     }
 
-    public void printFleetBySpeed() {
-        List<Vehicle> sorted = new ArrayList<>(fleet);
-        sorted.sort(Comparator.comparingDouble(Vehicle::getMaxSpeed).reversed());
+    // top-k and range queries on the maintained indexes, O(log n + number returned)
+    public List<Vehicle> getFastestVehicles(int k) {
+        return speedIndex.highest(k);
+    }
 
-        System.out.println("Fleet sorted by max speed:");
-        for (Vehicle v : sorted) {
-            System.out.println(v.getId() + " | " + v.getModel() + " | " + v.getMaxSpeed());
-        }
+    public List<Vehicle> getSlowestVehicles(int k) {
+        return speedIndex.lowest(k);
     }
 
-    public void printFleetByEfficiency() {
-        List<Vehicle> sorted = new ArrayList<>(fleet);
-        sorted.sort(Comparator.comparingDouble(Vehicle::calculateFuelEfficiency).reversed());
+    public List<Vehicle> getMostEfficientVehicles(int k) {
+        return efficiencyIndex.highest(k);
+    }
 
-        System.out.println("Fleet sorted by efficiency:");
-        for (Vehicle v : sorted) {
-            System.out.println(v.getId() + " | " + v.getModel() + " | " + v.calculateFuelEfficiency());
-        }
+    public List<Vehicle> getLeastEfficientVehicles(int k) {
+        return efficiencyIndex.lowest(k);
+    }
+
+    // both bounds inclusive, slowest first
+    public List<Vehicle> getVehiclesBySpeedRange(double minSpeed, double maxSpeed) {
+        return speedIndex.range(minSpeed, maxSpeed);
+    }
+
+    // both bounds inclusive, least efficient first
+    public List<Vehicle> getVehiclesByEfficiencyRange(double minEfficiency, double maxEfficiency) {
+        return efficiencyIndex.range(minEfficiency, maxEfficiency);
+    }
+
+    // case insensitive
+    public List<Vehicle> getVehiclesByModel(String model) {
+        return modelIndex.range(model, model);
+    }
+
+    // same contract as Collections.max/min on an empty fleet
+    private static Vehicle nonEmpty(Vehicle v) {
+        if (v == null)
+            throw new NoSuchElementException();
+        return v;
+    }
+
+    // fleet wide totals, answered from the columnar store when it is enabled
+    public double getTotalFuelLevel() {
+        FleetColumns cols = columns;
+        if (cols != null)
+            return cols.totalFuel();
+        double total = 0;
+        for (Vehicle v : members(fuelConsumers))
+            total += ((FuelConsumable) v).getFuelLevel();
+        return total;
+    }
+
+    public double getTotalCargo() {
+        FleetColumns cols = columns;
+        if (cols != null)
+            return cols.totalCargo();
+        double total = 0;
+        for (Vehicle v : members(cargoCarriers))
+            total += ((CargoCarrier) v).getCurrentCargo();
+        return total;
+    }
+
+    public long getTotalPassengers() {
+        FleetColumns cols = columns;
+        if (cols != null)
+            return cols.totalPassengers();
+        long total = 0;
+        for (Vehicle v : members(passengerCarriers))
+            total += ((PassengerCarrier) v).getCurrentPassengers();
+        return total;
+    }
+
+    public void printFleetBySpeed() {
+        printSorted("Fleet sorted by max speed:", SortKey.SPEED);
+    }
+
+    public void printFleetByEfficiency() {
+        printSorted("Fleet sorted by efficiency:", SortKey.EFFICIENCY);
     }
 
     public void printFleetByModelName() {
-        List<Vehicle> sorted = new ArrayList<>(fleet);
-        sorted.sort(Comparator.comparing(Vehicle::getModel, String.CASE_INSENSITIVE_ORDER));
+        printSorted("Fleet sorted by model name:", SortKey.MODEL);
+    }
 
-        System.out.println("Fleet sorted by model name:");
-        for (Vehicle v : sorted) {
-            System.out.println(v.getId() + " | " + v.getModel());
-        }
+    // orders fleetPage can walk, all kept up to date so no page needs a sort
+    public enum SortKey {
+        FLEET_ORDER, // same order as getFleet()
+        SPEED,       // fastest first
+        EFFICIENCY,  // most efficient first
+        MODEL        // model name A-Z, case insensitive
     }
 
+    // vehicles [offset, offset + limit) of the fleet in the given order- costs O(offset + limit) however big
+    // the fleet is, so showing the first screen is cheap. fewer (or none) come back past the end
+    public List<Vehicle> fleetPage(SortKey key, int offset, int limit) {
+        return switch (key) {
+            case FLEET_ORDER -> registry.page(offset, limit);
+            case SPEED -> speedIndex.page(offset, limit, true);
+            case EFFICIENCY -> efficiencyIndex.page(offset, limit, true);
+            case MODEL -> modelIndex.page(offset, limit, false);
+        };
+    }
 
-    public List<Vehicle> getFleet() {
-        return fleet;
+    // one page in the same "id | model | value" format as the printFleetBy* methods
+    public void printFleetPage(SortKey key, int offset, int limit) {
+        PrintWriter out = consoleWriter();
+        for (Vehicle v : fleetPage(key, offset, limit))
+            out.println(line(key, v));
+        out.flush();
+    }
+
+    private void printSorted(String header, SortKey key) {
+        PrintWriter out = consoleWriter();
+        out.println(header);
+        for (Vehicle v : fleetPage(key, 0, Integer.MAX_VALUE))
+            out.println(line(key, v));
+        out.flush();
     }
 
+    private static String line(SortKey key, Vehicle v) {
+        return switch (key) {
+            case SPEED -> v.getId() + " | " + v.getModel() + " | " + v.getMaxSpeed();
+            case EFFICIENCY -> v.getId() + " | " + v.getModel() + " | " + v.calculateFuelEfficiency();
+            case FLEET_ORDER, MODEL -> v.getId() + " | " + v.getModel();
+        };
+    }
+
+    // one buffered writer per listing instead of a System.out.println per line. flushed, never closed
+    private static PrintWriter consoleWriter() {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+    }
 
-}
\ No newline at end of file
+
+    // read only copy of the fleet in fleet order- add and remove vehicles through the manager so every
+    // index stays in step
+    public List<Vehicle> getFleet() {
+        return registry.snapshot();
+    }
+
+    // swaps the whole fleet for vehicles, e.g. after loading a file. a repeated id is skipped with a message
+    public void replaceFleet(Collection<? extends Vehicle> vehicles) {
+        registry.clear();
+        for (Vehicle v : vehicles) {
+            if (!registry.add(v))
+                System.out.println("Skipping vehicle " + v.getId() + ": Vehicle ID already exists");
+        }
+    }
+}
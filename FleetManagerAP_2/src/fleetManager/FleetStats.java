@@ -0,0 +1,167 @@
+package fleetManager;
+
+import Interfaces.Maintainable;
+import Interfaces.VehicleListener;
+import Vehicles.Vehicle;
+import Vehicles.VehicleType;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// running totals behind generateReport(): vehicles per type, summed fuel efficiency and number of
+// vehicles needing maintenance. each vehicle's last counted contribution is remembered so a change
+// only applies the difference, which keeps the report O(1) however large the fleet is. the efficiency
+// total is a compensated (Neumaier) sum so millions of += / -= don't drift, and it is rebuilt from the
+// remembered contributions every RESYNC_INTERVAL changes to drop whatever error is left
+class FleetStats {
+    static final int RESYNC_INTERVAL = 1 << 16;
+
+    // consistent copy of the totals at one point in time
+    static final class Totals {
+        final int[] countByType;
+        final double totalEfficiency;
+        final int maintenanceCount;
+
+        Totals(int[] countByType, double totalEfficiency, int maintenanceCount) {
+            this.countByType = countByType;
+            this.totalEfficiency = totalEfficiency;
+            this.maintenanceCount = maintenanceCount;
+        }
+
+        int count(VehicleType type) {
+            return countByType[type.tag()];
+        }
+
+        // counts must match exactly, the efficiency sum is allowed the rounding of a plain left to right sum
+        boolean matches(Totals other) {
+            double tolerance = 1e-6 * Math.max(1, Math.abs(other.totalEfficiency));
+            return Arrays.equals(countByType, other.countByType)
+                    && maintenanceCount == other.maintenanceCount
+                    && Math.abs(totalEfficiency - other.totalEfficiency) <= tolerance;
+        }
+
+        @Override
+        public String toString() {
+            return "counts=" + Arrays.toString(countByType) + ", efficiency=" + totalEfficiency
+                    + ", maintenance=" + maintenanceCount;
+        }
+    }
+
+    private static final class Contribution {
+        double efficiency;
+        boolean due;
+    }
+
+    private final int[] countByType = new int[VehicleType.values().length];
+    private double totalEfficiency;
+    private double efficiencyCompensation; // low order bits totalEfficiency lost
+    private int changesSinceResync;
+    private int maintenanceCount;
+    private final Map<Vehicle, Contribution> contributions = new IdentityHashMap<>();
+
+    // like FleetColumns, vehicle values are read before taking this lock
+    void add(Vehicle v) {
+        VehicleType type = v.getType();
+        double efficiency = v.calculateFuelEfficiency();
+        boolean due = isDue(v);
+
+        synchronized (this) {
+            if (contributions.containsKey(v))
+                return;
+            Contribution c = new Contribution();
+            c.efficiency = efficiency;
+            c.due = due;
+            contributions.put(v, c);
+            countByType[type.tag()]++;
+            addEfficiency(efficiency);
+            countChange();
+            if (due)
+                maintenanceCount++;
+        }
+    }
+
+    synchronized void remove(Vehicle v) {
+        Contribution c = contributions.remove(v);
+        if (c == null)
+            return;
+        countByType[v.getType().tag()]--;
+        addEfficiency(-c.efficiency);
+        countChange();
+        if (c.due)
+            maintenanceCount--;
+    }
+
+    void update(Vehicle v, VehicleListener.Change change) {
+        switch (change) {
+            case CARGO -> {
+                double efficiency = v.calculateFuelEfficiency();
+                synchronized (this) {
+                    Contribution c = contributions.get(v);
+                    if (c == null || c.efficiency == efficiency)
+                        return;
+                    addEfficiency(-c.efficiency);
+                    addEfficiency(efficiency);
+                    c.efficiency = efficiency;
+                    countChange();
+                }
+            }
+            case MILEAGE, MAINTENANCE -> {
+                boolean due = isDue(v);
+                synchronized (this) {
+                    Contribution c = contributions.get(v);
+                    if (c == null || c.due == due)
+                        return;
+                    c.due = due;
+                    maintenanceCount += due ? 1 : -1;
+                }
+            }
+            default -> {
+                // fuel, passengers, speed and model don't feed the report
+            }
+        }
+    }
+
+    synchronized Totals totals() {
+        return new Totals(countByType.clone(), totalEfficiency + efficiencyCompensation, maintenanceCount);
+    }
+
+    // caller holds this
+    private void addEfficiency(double x) {
+        double t = totalEfficiency + x;
+        if (Math.abs(totalEfficiency) >= Math.abs(x))
+            efficiencyCompensation += (totalEfficiency - t) + x;
+        else
+            efficiencyCompensation += (x - t) + totalEfficiency;
+        totalEfficiency = t;
+    }
+
+    // caller holds this, after the contributions are up to date again
+    private void countChange() {
+        if (++changesSinceResync < RESYNC_INTERVAL)
+            return;
+        totalEfficiency = 0;
+        efficiencyCompensation = 0;
+        for (Contribution c : contributions.values())
+            addEfficiency(c.efficiency);
+        changesSinceResync = 0;
+    }
+
+    // full pass over the given vehicles, used to cross check the running totals
+    static Totals recount(Iterable<Vehicle> vehicles) {
+        int[] counts = new int[VehicleType.values().length];
+        double efficiency = 0;
+        int due = 0;
+        for (Vehicle v : vehicles) {
+            counts[v.getType().tag()]++;
+            efficiency += v.calculateFuelEfficiency();
+            if (isDue(v))
+                due++;
+        }
+        return new Totals(counts, efficiency, due);
+    }
+
+    private static boolean isDue(Vehicle v) {
+        return v instanceof Maintainable m && m.needsMaintenance();
+    }
+}
@@ -0,0 +1,168 @@
+package fleetManager;
+
+import CustomExceptions.InvalidOperationException;
+import Interfaces.FuelConsumable;
+import Vehicles.Vehicle;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// fuel simulation over a frozen copy of the fleet: fuel, efficiency and mileage as primitive arrays, a
+// tick applies one distance per vehicle to all of them in a single pass. the vehicles themselves are only
+// touched by apply(). per vehicle the result is bit for bit what tryMove(distance) would do:
+// fuelNeeded = distance / efficiency, no move if fuel < fuelNeeded, otherwise fuel -= fuelNeeded and
+// mileage += distance. a sail ship (the only vehicle with efficiency 0) moves without using fuel and a
+// negative or NaN distance is rejected. the ticks run on the Vector API (FuelBatchVectors) when the JVM was
+// started with --add-modules jdk.incubator.vector, as a plain loop otherwise- same results either way.
+// not thread safe- one thread drives a batch
+public class FuelBatch {
+    static final byte MOVED = 0;
+    static final byte INSUFFICIENT_FUEL = 1;
+    static final byte INVALID = 2;
+
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final Vehicle[] vehicles;
+    private final double[] fuel;
+    private final double[] efficiency;
+    private final double[] mileage;
+    private final double[] travelled; // per vehicle distance moved since the batch was taken or last applied
+    private final byte[] status;
+    private final int size;
+
+    FuelBatch(Vehicle[] vehicles, double[] fuel, double[] efficiency, double[] mileage, int size) {
+        this.vehicles = vehicles;
+        this.fuel = fuel;
+        this.efficiency = efficiency;
+        this.mileage = mileage;
+        this.travelled = new double[size];
+        this.status = new byte[size];
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // the order every per vehicle array (distances in, results out) uses
+    public List<Vehicle> getVehicles() {
+        return Collections.unmodifiableList(Arrays.asList(vehicles).subList(0, size));
+    }
+
+    // the same distance for every vehicle
+    public void tick(double distance) {
+        int i = VECTORIZED
+                ? FuelBatchVectors.tick(fuel, efficiency, mileage, travelled, status, size, null, distance) : 0;
+        for (; i < size; i++)
+            step(i, distance);
+    }
+
+    // distances[i] is for getVehicles().get(i)
+    public void tick(double[] distances) {
+        if (distances.length < size)
+            throw new IllegalArgumentException("Need " + size + " distances, got " + distances.length);
+        int i = VECTORIZED
+                ? FuelBatchVectors.tick(fuel, efficiency, mileage, travelled, status, size, distances, 0) : 0;
+        for (; i < size; i++)
+            step(i, distances[i]);
+    }
+
+    // the scalar version of the tick, also the tail the vector loop leaves over
+    private void step(int i, double d) {
+        double f = fuel[i];
+        double e = efficiency[i];
+        double needed = d / e;
+        boolean invalid = !(d >= 0);
+        boolean fuelFree = e == 0;
+        boolean outOfFuel = !fuelFree & f < needed;
+        boolean moves = !invalid & !outOfFuel;
+        fuel[i] = moves & !fuelFree ? f - needed : f;
+        mileage[i] = moves ? mileage[i] + d : mileage[i];
+        travelled[i] = moves ? travelled[i] + d : travelled[i];
+        status[i] = invalid ? INVALID : outOfFuel ? INSUFFICIENT_FUEL : MOVED;
+    }
+
+    // makes the ticks so far real: every vehicle that travelled in the batch is moved that far with
+    // tryMove, under its lock, so fuel and mileage change through the vehicle and its listeners (indexes,
+    // columnar store, journal) see it like any other move. no journey events are sent. a vehicle that no
+    // longer has the fuel (it was used elsewhere since the batch was taken) is left alone and its status
+    // becomes INSUFFICIENT_FUEL. either way the batch then carries on from the vehicle's real fuel, mileage
+    // and efficiency. returns how many vehicles were moved.
+    // each vehicle moves once, by everything it travelled since the last apply. the batch's own arrays
+    // followed tryMove tick by tick, but one tryMove(d1 + d2) rounds differently than tryMove(d1) then
+    // tryMove(d2), so after several ticks the vehicle's fuel and mileage can differ from the batch's in the
+    // last bits. apply after every tick when the vehicles must match a tick by tick run exactly
+    public int apply() {
+        int applied = 0;
+        for (int i = 0; i < size; i++) {
+            double d = travelled[i];
+            if (d == 0)
+                continue;
+            Vehicle v = vehicles[i];
+            synchronized (v) {
+                try {
+                    if (v.tryMove(d))
+                        applied++;
+                    else
+                        status[i] = INSUFFICIENT_FUEL;
+                } catch (InvalidOperationException e) {
+                    throw new IllegalStateException(e); // travelled is never negative
+                }
+                fuel[i] = v instanceof FuelConsumable f ? f.getFuelLevel() : 0;
+                mileage[i] = v.getCurrentMileage();
+                efficiency[i] = v.calculateFuelEfficiency();
+            }
+            travelled[i] = 0;
+        }
+        return applied;
+    }
+
+    // outcome of the last tick for vehicle i
+    public JourneyResult.Status getStatus(int i) {
+        return switch (status(i)) {
+            case MOVED -> JourneyResult.Status.MOVED;
+            case INSUFFICIENT_FUEL -> JourneyResult.Status.INSUFFICIENT_FUEL;
+            default -> JourneyResult.Status.INVALID;
+        };
+    }
+
+    public boolean moved(int i) {
+        return status(i) == MOVED;
+    }
+
+    // per vehicle mask of the last tick, true where the vehicle moved
+    public boolean[] movedMask() {
+        boolean[] mask = new boolean[size];
+        for (int i = 0; i < size; i++)
+            mask[i] = status[i] == MOVED;
+        return mask;
+    }
+
+    public int movedCount() {
+        int n = 0;
+        for (int i = 0; i < size; i++)
+            n += status[i] == MOVED ? 1 : 0;
+        return n;
+    }
+
+    public double getFuelLevel(int i) {
+        checkIndex(i);
+        return fuel[i];
+    }
+
+    public double getMileage(int i) {
+        checkIndex(i);
+        return mileage[i];
+    }
+
+    private byte status(int i) {
+        checkIndex(i);
+        return status[i];
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+    }
+}
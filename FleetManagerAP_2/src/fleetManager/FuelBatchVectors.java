@@ -0,0 +1,49 @@
+package fleetManager;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// FuelBatch's tick as Vector API code: the same per vehicle math as FuelBatch.step, a whole vector of
+// vehicles per iteration, the masks standing in for the booleans. lane wise divide, compare, subtract and
+// add round exactly like the scalar operations, so the results are bit for bit the same.
+// only loaded when the jdk.incubator.vector module is present (java --add-modules jdk.incubator.vector),
+// FuelBatch falls back to its scalar loop otherwise
+final class FuelBatchVectors {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private FuelBatchVectors() {
+    }
+
+    // ticks vehicles [0, n) with a whole number of vectors and returns n, the caller does the rest with
+    // FuelBatch.step. distances null means distance for every vehicle
+    static int tick(double[] fuel, double[] efficiency, double[] mileage, double[] travelled, byte[] status,
+                    int size, double[] distances, double distance) {
+        int n = SPECIES.loopBound(size);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        DoubleVector same = DoubleVector.broadcast(SPECIES, distance);
+        for (int i = 0; i < n; i += SPECIES.length()) {
+            DoubleVector d = distances == null ? same : DoubleVector.fromArray(SPECIES, distances, i);
+            DoubleVector f = DoubleVector.fromArray(SPECIES, fuel, i);
+            DoubleVector e = DoubleVector.fromArray(SPECIES, efficiency, i);
+            DoubleVector needed = d.div(e);
+            VectorMask<Double> invalid = d.compare(VectorOperators.GE, zero).not(); // NaN compares false
+            VectorMask<Double> fuelFree = e.compare(VectorOperators.EQ, zero);
+            VectorMask<Double> outOfFuel = f.compare(VectorOperators.LT, needed).andNot(fuelFree);
+            VectorMask<Double> moves = invalid.or(outOfFuel).not();
+
+            f.blend(f.sub(needed), moves.andNot(fuelFree)).intoArray(fuel, i);
+            DoubleVector.fromArray(SPECIES, mileage, i).add(d, moves).intoArray(mileage, i);
+            DoubleVector.fromArray(SPECIES, travelled, i).add(d, moves).intoArray(travelled, i);
+
+            long invalidBits = invalid.toLong();
+            long outOfFuelBits = outOfFuel.toLong();
+            for (int lane = 0; lane < SPECIES.length(); lane++) {
+                status[i + lane] = (invalidBits >>> lane & 1) != 0 ? FuelBatch.INVALID
+                        : (outOfFuelBits >>> lane & 1) != 0 ? FuelBatch.INSUFFICIENT_FUEL : FuelBatch.MOVED;
+            }
+        }
+        return n;
+    }
+}
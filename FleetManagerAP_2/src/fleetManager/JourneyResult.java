@@ -0,0 +1,44 @@
+package fleetManager;
+
+import Vehicles.Vehicle;
+
+// outcome of one vehicle's journey in FleetManager.startAllJourneys(distance, parallelism)
+public class JourneyResult {
+
+    public enum Status {
+        MOVED,
+        INSUFFICIENT_FUEL,
+        INVALID
+    }
+
+    private final Vehicle vehicle;
+    private final Status status;
+    private final String message; // only set for INVALID
+
+    public JourneyResult(Vehicle vehicle, Status status, String message) {
+        this.vehicle = vehicle;
+        this.status = status;
+        this.message = message;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean moved() {
+        return status == Status.MOVED;
+    }
+
+    @Override
+    public String toString() {
+        return vehicle.getId() + ": " + status + (message == null ? "" : " (" + message + ")");
+    }
+}
@@ -0,0 +1,78 @@
+package fleetManager;
+
+import Interfaces.Maintainable;
+import Interfaces.VehicleListener;
+import Vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// vehicles whose needsMaintenance() is currently true, kept up to date from the mileage and
+// schedule/perform maintenance notifications so nobody has to scan the whole fleet to find them
+class MaintenanceIndex {
+    private final Set<Vehicle> due = new LinkedHashSet<>();
+    // the fleet's vehicles. a callback can still arrive after its vehicle was removed (it runs under the
+    // vehicle's lock, not the registry's), and must not put the vehicle back in due
+    private final Set<Vehicle> members = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    void add(Vehicle v) {
+        boolean isDue = isDue(v);
+        synchronized (this) {
+            members.add(v);
+        }
+        mark(v, isDue);
+    }
+
+    synchronized void remove(Vehicle v) {
+        members.remove(v);
+        due.remove(v);
+    }
+
+    void update(Vehicle v, VehicleListener.Change change) {
+        if (change == VehicleListener.Change.MILEAGE || change == VehicleListener.Change.MAINTENANCE)
+            mark(v, isDue(v));
+    }
+
+    synchronized int size() {
+        return due.size();
+    }
+
+    // in the order the vehicles became due
+    synchronized List<Vehicle> snapshot() {
+        return new ArrayList<>(due);
+    }
+
+    // most overdue first: by how far the mileage is past the threshold. vehicles that are only due
+    // because maintenance was scheduled (mileage still under the threshold) come last
+    List<Vehicle> byOverdue() {
+        List<Vehicle> list = snapshot();
+        // mileage is read once per vehicle so a concurrent move can't change the order mid sort
+        Map<Vehicle, Double> overdue = new IdentityHashMap<>();
+        for (Vehicle v : list)
+            overdue.put(v, v.getCurrentMileage() - Maintainable.MILEAGE_THRESHOLD);
+        list.sort(Comparator.comparingDouble((Vehicle v) -> overdue.get(v)).reversed());
+        return list;
+    }
+
+    // value is read before taking the lock, vehicle callbacks already hold the vehicle's lock
+    private void mark(Vehicle v, boolean isDue) {
+        synchronized (this) {
+            if (!members.contains(v))
+                return;
+            if (isDue)
+                due.add(v);
+            else
+                due.remove(v);
+        }
+    }
+
+    private static boolean isDue(Vehicle v) {
+        return v instanceof Maintainable m && m.needsMaintenance();
+    }
+}
@@ -0,0 +1,192 @@
+package fleetManager;
+
+import Vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+// the fleet ordered by one key (max speed, efficiency, model...), kept sorted as vehicles are added,
+// removed or changed so min/max are O(log n) and top-k / range queries cost O(log n + k).
+// vehicles with equal keys are in fleet order, in both directions- the same as a stable sort of the
+// fleet, which is what the old copy-and-sort methods did. that is the order they were added in until the
+// fleet is reordered, after which the owner calls resequence with the new order
+class RankedIndex<K> {
+
+    private static final class Entry<K> {
+        final K key;
+        final long seq;
+        final Vehicle vehicle;
+
+        Entry(K key, long seq, Vehicle vehicle) {
+            this.key = key;
+            this.seq = seq;
+            this.vehicle = vehicle;
+        }
+    }
+
+    private final Function<Vehicle, K> keyOf;
+    private final Comparator<? super K> keyOrder;
+    private final NavigableSet<Entry<K>> entries;
+    private final Map<Vehicle, Entry<K>> byVehicle = new IdentityHashMap<>();
+    private long nextSeq;
+
+    RankedIndex(Function<Vehicle, K> keyOf, Comparator<? super K> keyOrder) {
+        this.keyOf = keyOf;
+        this.keyOrder = keyOrder;
+        Comparator<Entry<K>> byKey = (a, b) -> keyOrder.compare(a.key, b.key);
+        this.entries = new TreeSet<>(byKey.thenComparingLong(e -> e.seq));
+    }
+
+    // as elsewhere the key is read from the vehicle before taking the index lock
+    void add(Vehicle v) {
+        K key = keyOf.apply(v);
+        synchronized (this) {
+            if (byVehicle.containsKey(v))
+                return;
+            Entry<K> e = new Entry<>(key, nextSeq++, v);
+            byVehicle.put(v, e);
+            entries.add(e);
+        }
+    }
+
+    synchronized void remove(Vehicle v) {
+        Entry<K> e = byVehicle.remove(v);
+        if (e != null)
+            entries.remove(e);
+    }
+
+    // re-reads the key, returns the key the vehicle was indexed under before (null if it isn't indexed).
+    // the vehicle keeps its place among equal keys
+    K update(Vehicle v) {
+        return update(v, keyOf.apply(v));
+    }
+
+    // same with a key the caller already read
+    K update(Vehicle v, K key) {
+        synchronized (this) {
+            Entry<K> old = byVehicle.get(v);
+            if (old == null)
+                return null;
+            if (!Objects.equals(old.key, key)) {
+                entries.remove(old);
+                Entry<K> e = new Entry<>(key, old.seq, v);
+                byVehicle.put(v, e);
+                entries.add(e);
+            }
+            return old.key;
+        }
+    }
+
+    // gives the vehicles new sequence numbers in the given order, after the fleet has been reordered.
+    // indexed vehicles missing from it (added while it was being read) keep their relative order after
+    // the rest
+    synchronized void resequence(Iterable<Vehicle> fleetOrder) {
+        long first = nextSeq; // entries below this haven't been given their new number yet
+        List<Entry<K>> rest = new ArrayList<>(entries);
+        entries.clear();
+        for (Vehicle v : fleetOrder) {
+            Entry<K> old = byVehicle.get(v);
+            if (old != null && old.seq < first)
+                reseq(old);
+        }
+        for (Entry<K> old : rest) {
+            if (byVehicle.get(old.vehicle) == old)
+                reseq(old);
+        }
+    }
+
+    private void reseq(Entry<K> old) {
+        Entry<K> e = new Entry<>(old.key, nextSeq++, old.vehicle);
+        byVehicle.put(old.vehicle, e);
+        entries.add(e);
+    }
+
+    // first vehicle with the smallest key, null when empty
+    synchronized Vehicle min() {
+        return entries.isEmpty() ? null : entries.first().vehicle;
+    }
+
+    // first vehicle with the largest key, null when empty
+    synchronized Vehicle max() {
+        if (entries.isEmpty())
+            return null;
+        return groupStart(entries.last().key).vehicle;
+    }
+
+    // up to k vehicles, smallest keys first
+    List<Vehicle> lowest(int k) {
+        return page(0, k, false);
+    }
+
+    // up to k vehicles, largest keys first
+    List<Vehicle> highest(int k) {
+        return page(0, k, true);
+    }
+
+    // up to limit vehicles starting at position offset of the ascending (or descending) order.
+    // costs O(offset + limit), nothing outside the page is copied or sorted
+    synchronized List<Vehicle> page(int offset, int limit, boolean descending) {
+        if (offset < 0 || limit < 0)
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        List<Vehicle> result = new ArrayList<>(Math.max(0, Math.min(limit, entries.size() - offset)));
+        if (descending) {
+            descend(result, offset, limit);
+        } else {
+            Iterator<Entry<K>> it = entries.iterator();
+            for (int skipped = 0; skipped < offset && it.hasNext(); skipped++)
+                it.next();
+            while (result.size() < limit && it.hasNext())
+                result.add(it.next().vehicle);
+        }
+        return result;
+    }
+
+    // every vehicle with from <= key <= to, ascending
+    synchronized List<Vehicle> range(K from, K to) {
+        if (keyOrder.compare(from, to) > 0)
+            return Collections.emptyList();
+        List<Vehicle> result = new ArrayList<>();
+        for (Entry<K> e : entries.subSet(new Entry<>(from, Long.MIN_VALUE, null), true,
+                new Entry<>(to, Long.MAX_VALUE, null), true))
+            result.add(e.vehicle);
+        return result;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // walks the keys from the top, each run of equal keys in insertion order
+    private void descend(List<Vehicle> out, int skip, int k) {
+        if (entries.isEmpty())
+            return;
+        Entry<K> group = groupStart(entries.last().key);
+        while (out.size() < k) {
+            for (Entry<K> e : entries.tailSet(group, true)) {
+                if (keyOrder.compare(e.key, group.key) != 0 || out.size() == k)
+                    break;
+                if (skip > 0)
+                    skip--;
+                else
+                    out.add(e.vehicle);
+            }
+            Entry<K> below = entries.lower(group);
+            if (below == null)
+                return;
+            group = groupStart(below.key);
+        }
+    }
+
+    private Entry<K> groupStart(K key) {
+        return entries.ceiling(new Entry<>(key, Long.MIN_VALUE, null));
+    }
+}
@@ -0,0 +1,36 @@
+package fleetManager;
+
+import Vehicles.Vehicle;
+import Vehicles.VehicleType;
+
+import java.util.List;
+
+// the fleet split by concrete type, so a type filter is a lookup instead of an instanceof scan.
+// kept in step by FleetManager's membership hooks
+class TypeBuckets {
+    private final DenseList<Vehicle>[] buckets;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TypeBuckets() {
+        VehicleType[] types = VehicleType.values();
+        buckets = new DenseList[types.length];
+        for (VehicleType t : types)
+            buckets[t.tag()] = new DenseList<>();
+    }
+
+    synchronized void add(Vehicle v) {
+        buckets[v.getType().tag()].add(v);
+    }
+
+    synchronized void remove(Vehicle v) {
+        buckets[v.getType().tag()].remove(v);
+    }
+
+    synchronized int count(VehicleType type) {
+        return buckets[type.tag()].size();
+    }
+
+    synchronized List<Vehicle> snapshot(VehicleType type) {
+        return buckets[type.tag()].copy();
+    }
+}
@@ -0,0 +1,273 @@
+package fleetManager;
+
+import Vehicles.Vehicle;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+// id keyed index behind FleetManager- LinkedHashMap keeps insertion order so iteration
+// looks exactly like the old ArrayList, but add/remove/lookup by id are O(1)
+class VehicleRegistry {
+
+    // lets FleetManager keep its secondary indexes in step with every structural change
+    interface Membership {
+        void added(Vehicle v);
+
+        void removed(Vehicle v);
+    }
+
+    private LinkedHashMap<String, Vehicle> byId = new LinkedHashMap<>();
+
+    // model -> number of vehicles with that model, a model only disappears when its last vehicle goes.
+    // countedModel is the model each vehicle is counted under. both are guarded by modelCounts' own
+    // monitor rather than the registry lock: renames update them from inside vehicle callbacks (vehicle
+    // lock held), while the registry lock is held around reading vehicles, so taking it there could deadlock
+    private final Map<String, Integer> modelCounts = new HashMap<>();
+    private final Map<Vehicle, String> countedModel = new IdentityHashMap<>();
+
+    // concurrent mode only: structural changes take the write lock, iteration works on a snapshot
+    // taken under the read lock and single lookups go to a ConcurrentHashMap without locking at all
+    private final ReentrantReadWriteLock lock;
+    private final Map<String, Vehicle> lookup;
+
+    private final Membership membership;
+
+    VehicleRegistry(boolean concurrent, Membership membership) {
+        this.lock = concurrent ? new ReentrantReadWriteLock() : null;
+        this.lookup = concurrent ? new ConcurrentHashMap<>() : null;
+        this.membership = membership;
+    }
+
+    boolean isConcurrent() {
+        return lock != null;
+    }
+
+    boolean add(Vehicle v) {
+        lockWrite();
+        try {
+            if (byId.putIfAbsent(v.getId(), v) != null)
+                return false;
+            if (isConcurrent())
+                lookup.put(v.getId(), v);
+            synchronized (modelCounts) {
+                String model = v.getModel();
+                countedModel.put(v, model);
+                modelCounts.merge(model, 1, Integer::sum);
+            }
+            membership.added(v);
+            return true;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    Vehicle remove(String id) {
+        lockWrite();
+        try {
+            Vehicle removed = byId.remove(id);
+            if (removed != null) {
+                if (isConcurrent())
+                    lookup.remove(id);
+                releaseModel(removed);
+                membership.removed(removed);
+            }
+            return removed;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    Vehicle get(String id) {
+        return index().get(id);
+    }
+
+    boolean contains(String id) {
+        return index().containsKey(id);
+    }
+
+    int size() {
+        return index().size();
+    }
+
+    boolean isEmpty() {
+        return index().isEmpty();
+    }
+
+    void clear() {
+        lockWrite();
+        try {
+            for (Vehicle v : byId.values())
+                membership.removed(v);
+            byId.clear();
+            if (isConcurrent())
+                lookup.clear();
+            synchronized (modelCounts) {
+                modelCounts.clear();
+                countedModel.clear();
+            }
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    Collection<Vehicle> values() {
+        if (!isConcurrent())
+            return Collections.unmodifiableCollection(byId.values());
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(byId.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // unmodifiable copy in fleet order
+    List<Vehicle> snapshot() {
+        if (isConcurrent())
+            lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(byId.values()));
+        } finally {
+            if (isConcurrent())
+                lock.readLock().unlock();
+        }
+    }
+
+    Set<String> models() {
+        if (!isConcurrent())
+            return Collections.unmodifiableSet(modelCounts.keySet());
+        synchronized (modelCounts) {
+            return Collections.unmodifiableSet(new HashSet<>(modelCounts.keySet()));
+        }
+    }
+
+    // up to limit vehicles from position offset in fleet order, O(offset + limit)
+    List<Vehicle> page(int offset, int limit) {
+        if (offset < 0 || limit < 0)
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        if (isConcurrent())
+            lock.readLock().lock();
+        try {
+            List<Vehicle> result = new ArrayList<>(Math.max(0, Math.min(limit, byId.size() - offset)));
+            Iterator<Vehicle> it = byId.values().iterator();
+            for (int skipped = 0; skipped < offset && it.hasNext(); skipped++)
+                it.next();
+            while (result.size() < limit && it.hasNext())
+                result.add(it.next());
+            return result;
+        } finally {
+            if (isConcurrent())
+                lock.readLock().unlock();
+        }
+    }
+
+    // rebuilds the insertion order sorted by a primitive key, stable like Collections.sort on the old list.
+    // each key is read once up front; the order comes from a primitive sort of the keys plus a counting
+    // sort of the vehicles by key rank, so there is no comparator and no per comparison key lookup.
+    // the keys are read before taking the write lock (a key may need the vehicle's lock, and a vehicle
+    // callback may be waiting for ours), and read again if the fleet changed in between
+    void reorderByKey(ToDoubleFunction<? super Vehicle> keyOf) {
+        reorderByKeys(vehicles -> {
+            double[] keys = new double[vehicles.length];
+            for (int i = 0; i < vehicles.length; i++)
+                keys[i] = keyOf.applyAsDouble(vehicles[i]);
+            return keys;
+        });
+    }
+
+    // same, with all keys read in one go- keysOf gets the fleet in order and returns one key per vehicle
+    void reorderByKeys(Function<Vehicle[], double[]> keysOf) {
+        while (true) {
+            Vehicle[] vehicles = values().toArray(new Vehicle[0]);
+            if (reorder(vehicles, keysOf.apply(vehicles)))
+                return;
+        }
+    }
+
+    // false if the fleet is no longer exactly vehicles, in that order
+    private boolean reorder(Vehicle[] vehicles, double[] keys) {
+        lockWrite();
+        try {
+            int n = vehicles.length;
+            if (byId.size() != n)
+                return false;
+            int at = 0;
+            for (Vehicle v : byId.values()) {
+                if (v != vehicles[at++])
+                    return false;
+            }
+
+            // distinct keys in Double.compare order- a fleet only has a handful of efficiency values
+            double[] distinct = keys.clone();
+            Arrays.sort(distinct);
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                if (m == 0 || Double.compare(distinct[m - 1], distinct[i]) != 0)
+                    distinct[m++] = distinct[i];
+            }
+
+            int[] rank = new int[n];
+            int[] start = new int[m + 1];
+            for (int i = 0; i < n; i++) {
+                rank[i] = Arrays.binarySearch(distinct, 0, m, keys[i]);
+                start[rank[i] + 1]++;
+            }
+            for (int r = 0; r < m; r++)
+                start[r + 1] += start[r];
+
+            Vehicle[] sorted = new Vehicle[n];
+            for (int i = 0; i < n; i++)
+                sorted[start[rank[i]]++] = vehicles[i];
+
+            LinkedHashMap<String, Vehicle> reordered = new LinkedHashMap<>(Math.max(16, n * 4 / 3 + 1));
+            for (Vehicle v : sorted)
+                reordered.put(v.getId(), v);
+            byId = reordered;
+            return true;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    // keeps the model counts right after setModel. ignored if the vehicle has left the registry meanwhile
+    void modelChanged(Vehicle v, String newModel) {
+        synchronized (modelCounts) {
+            if (!countedModel.containsKey(v))
+                return;
+            String oldModel = countedModel.put(v, newModel);
+            if (Objects.equals(oldModel, newModel))
+                return;
+            releaseModel(oldModel);
+            modelCounts.merge(newModel, 1, Integer::sum);
+        }
+    }
+
+    // the model v was counted under goes down by one
+    private void releaseModel(Vehicle v) {
+        synchronized (modelCounts) {
+            if (countedModel.containsKey(v))
+                releaseModel(countedModel.remove(v));
+        }
+    }
+
+    private void releaseModel(String model) {
+        modelCounts.computeIfPresent(model, (m, count) -> count == 1 ? null : count - 1);
+    }
+
+    private Map<String, Vehicle> index() {
+        return lookup != null ? lookup : byId;
+    }
+
+    private void lockWrite() {
+        if (lock != null)
+            lock.writeLock().lock();
+    }
+
+    private void unlockWrite() {
+        if (lock != null)
+            lock.writeLock().unlock();
+    }
+}
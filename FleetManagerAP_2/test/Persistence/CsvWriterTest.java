@@ -0,0 +1,68 @@
+package Persistence;
+
+import Vehicles.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// CsvWriter must write exactly the lines toCSV() gives, wherever the fields fall against its buffer
+class CsvWriterTest {
+    @TempDir
+    Path dir;
+
+    // "Car," + id fills the buffer to the last byte, so the comma after the id starts a new one
+    @Test
+    void idEndingAtBufferLimit() throws Exception {
+        List<Vehicle> fleet = new ArrayList<>();
+        fleet.add(new Car("x".repeat(CsvWriter.BUFFER_SIZE - "Car,".length()), "Honda", 150, 0, 4, 40, 5, 0));
+        fleet.add(new Truck("T1", "Volvo", 100, 0, 6, 200, 5000, 1000));
+        assertRoundTrip(fleet);
+    }
+
+    @Test
+    void modelEndingAtBufferLimit() throws Exception {
+        List<Vehicle> fleet = new ArrayList<>();
+        fleet.add(new Bus("B1", "y".repeat(CsvWriter.BUFFER_SIZE - "Bus,B1,".length()), 90, 0, 6, 150, 50, 0, 500, 100));
+        fleet.add(new CargoShip("S1", "Maersk", 40, 0, true, 50000, 10000, 0));
+        assertRoundTrip(fleet);
+    }
+
+    // ids and models of every length up to a few thousand chars, so record ends and separators land on
+    // every position of the buffer many times over
+    @Test
+    void longIdsAcrossManyBuffers() throws Exception {
+        Random random = new Random(18);
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String id = "V" + i + "-" + "i".repeat(random.nextInt(3000));
+            String model = "m".repeat(random.nextInt(200));
+            fleet.add(switch (i % 5) {
+                case 0 -> new Car(id, model, 150, 12.5, 4, 40, 5, 2);
+                case 1 -> new Truck(id, model, 100, 0.001, 6, 199.75, 5000, 1234.5);
+                case 2 -> new Bus(id, model, 90, 1e8, 6, 150, 50, 10, 500, 100);
+                case 3 -> new Airplane(id, model, 850, 0, 11000, 5000, 200, 0, 10000, 2000);
+                default -> new CargoShip(id, model, 40, Math.PI, i % 2 == 0, 50000, 10000, 1000);
+            });
+        }
+        assertRoundTrip(fleet);
+    }
+
+    private void assertRoundTrip(List<Vehicle> fleet) throws IOException {
+        Path file = dir.resolve("fleet.csv");
+        CsvWriter.write(fleet, file.toString());
+
+        StringBuilder expected = new StringBuilder();
+        for (Vehicle v : fleet)
+            expected.append(v.toCSV()).append(System.lineSeparator());
+        assertEquals(expected.toString(), Files.readString(file, Charset.defaultCharset()));
+    }
+}
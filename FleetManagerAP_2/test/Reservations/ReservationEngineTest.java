@@ -0,0 +1,154 @@
+package Reservations;
+
+import Interfaces.PassengerCarrier;
+import Interfaces.VehicleEventSink;
+import Vehicles.Bus;
+import Vehicles.Car;
+import Vehicles.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// many threads reserving, confirming, releasing and expiring seats on a few vehicles at once. every seat
+// the engine hands out must be accounted for at the end, and no vehicle may ever be booked past its seats
+class ReservationEngineTest {
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 20_000;
+    private static final int VEHICLES = 12;
+
+    private VehicleEventSink sink;
+
+    @BeforeEach
+    void silenceEvents() {
+        sink = Vehicle.getEventSink();
+        Vehicle.setEventSink(null);
+    }
+
+    @AfterEach
+    void restoreEvents() {
+        Vehicle.setEventSink(sink);
+    }
+
+    @Test
+    void concurrentBookingsNeverOverbook() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        ReservationEngine engine = new ReservationEngine(clock::get);
+        List<Vehicle> vehicles = new ArrayList<>();
+        Map<Vehicle, Integer> initiallyFree = new ConcurrentHashMap<>();
+        Map<Vehicle, Integer> initiallyOnBoard = new ConcurrentHashMap<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle v = i % 3 == 0
+                    ? new Car("C" + i, "Honda", 150, 0, 4, 40, 5, i % 2)
+                    : new Bus("B" + i, "Scania", 90, 0, 6, 150, 20 + 7 * i, i, 500, 0);
+            engine.register(v);
+            vehicles.add(v);
+            PassengerCarrier p = (PassengerCarrier) v;
+            initiallyFree.put(v, p.getPassengerCapacity() - p.getCurrentPassengers());
+            initiallyOnBoard.put(v, p.getCurrentPassengers());
+        }
+
+        Queue<Reservation> made = new ConcurrentLinkedQueue<>();
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            workers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                List<Reservation> mine = new ArrayList<>();
+                start.await();
+                for (int op = 0; op < OPS_PER_THREAD; op++) {
+                    int seats = 1 + random.nextInt(6);
+                    switch (random.nextInt(6)) {
+                        case 0, 1 -> add(mine, made, engine.reserveAny(seats, 1 + random.nextInt(50)));
+                        case 2 -> add(mine, made,
+                                engine.reserve(vehicles.get(random.nextInt(VEHICLES)), seats, 1 + random.nextInt(50)));
+                        case 3 -> {
+                            if (!mine.isEmpty())
+                                engine.confirm(mine.get(random.nextInt(mine.size())));
+                        }
+                        case 4 -> {
+                            if (!mine.isEmpty())
+                                engine.release(mine.remove(random.nextInt(mine.size())));
+                        }
+                        default -> {
+                            clock.addAndGet(1_000_000); // a millisecond
+                            engine.expireOverdue();
+                        }
+                    }
+                    if (op % 500 == 0)
+                        check(engine, vehicles, violations);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> w : workers)
+                w.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(violations.isEmpty(), () -> violations.size() + " violations, first: " + violations.peek());
+        for (Vehicle v : vehicles) {
+            int held = 0;
+            int boarded = 0;
+            for (Reservation r : made) {
+                if (r.getVehicle() != v)
+                    continue;
+                if (r.getState() == Reservation.State.PENDING || r.getState() == Reservation.State.CONFIRMED)
+                    held += r.getSeats();
+                if (r.getState() == Reservation.State.CONFIRMED)
+                    boarded += r.getSeats();
+            }
+            assertEquals((int) initiallyFree.get(v), engine.getAvailableSeats(v) + held, "seats of " + v.getId());
+            assertEquals(initiallyOnBoard.get(v) + boarded, ((PassengerCarrier) v).getCurrentPassengers(),
+                    "passengers of " + v.getId());
+        }
+
+        // every vehicle must still be findable for as many seats as it has free
+        for (Vehicle v : vehicles) {
+            int free = engine.getAvailableSeats(v);
+            if (free > 0)
+                assertNotNull(engine.reserveAny(free, 1000), "no vehicle found for " + free + " seats");
+        }
+    }
+
+    private static void add(List<Reservation> mine, Queue<Reservation> made, Reservation r) {
+        if (r != null) {
+            mine.add(r);
+            made.add(r);
+        }
+    }
+
+    private static void check(ReservationEngine engine, List<Vehicle> vehicles, Queue<String> violations) {
+        for (Vehicle v : vehicles) {
+            PassengerCarrier p = (PassengerCarrier) v;
+            int free = engine.getAvailableSeats(v);
+            if (free < 0)
+                violations.add(v.getId() + " free seats " + free);
+            int onBoard = p.getCurrentPassengers();
+            if (onBoard > p.getPassengerCapacity())
+                violations.add(v.getId() + " " + onBoard + " on board of " + p.getPassengerCapacity());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package fleetManager;
+
+import CustomExceptions.InvalidOperationException;
+import CustomExceptions.OverloadException;
+import Interfaces.CargoCarrier;
+import Interfaces.FuelConsumable;
+import Interfaces.VehicleEventSink;
+import Vehicles.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// many threads moving, refuelling, loading and unloading a small shared fleet in concurrent mode. a lost
+// update anywhere shows up as fuel or cargo that doesn't add up at the end
+class ConcurrentFleetStressTest {
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 50_000;
+    private static final int VEHICLES = 40; // few vehicles so threads keep colliding on the same ones
+
+    private VehicleEventSink sink;
+
+    // what the threads did to one vehicle, to check its final state against
+    private static final class Ledger {
+        final double initialFuel;
+        final double initialCargo;
+        final DoubleAdder refueled = new DoubleAdder();
+        final DoubleAdder consumed = new DoubleAdder();
+        final DoubleAdder loaded = new DoubleAdder();
+        final DoubleAdder unloaded = new DoubleAdder();
+
+        Ledger(Vehicle v) {
+            initialFuel = ((FuelConsumable) v).getFuelLevel();
+            initialCargo = v instanceof CargoCarrier c ? c.getCurrentCargo() : 0;
+        }
+    }
+
+    @BeforeEach
+    void silenceEvents() {
+        sink = Vehicle.getEventSink();
+        Vehicle.setEventSink(null);
+    }
+
+    @AfterEach
+    void restoreEvents() {
+        Vehicle.setEventSink(sink);
+    }
+
+    @Test
+    void fuelAndCargoStayConsistentUnderConcurrentUse() throws Exception {
+        FleetManager fm = new FleetManager(true);
+        fm.setReportCrossCheck(true);
+        List<String> ids = new ArrayList<>();
+        Map<String, Ledger> ledgers = new ConcurrentHashMap<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle v = vehicle(i);
+            fm.addVehicle(v);
+            ids.add(v.getId());
+            ledgers.put(v.getId(), new Ledger(v));
+        }
+
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            workers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int op = 0; op < OPS_PER_THREAD; op++) {
+                    String id = ids.get(random.nextInt(ids.size()));
+                    step(fm.getById(id), ledgers.get(id), random, violations);
+                    if (op % 1000 == 0)
+                        checkFleet(fm, violations);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> w : workers)
+                w.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(violations.isEmpty(), () -> violations.size() + " violations, first: " + violations.peek());
+        for (String id : ids) {
+            Vehicle v = fm.getById(id);
+            Ledger l = ledgers.get(id);
+            double fuel = l.initialFuel + l.refueled.sum() - l.consumed.sum();
+            assertEquals(fuel, ((FuelConsumable) v).getFuelLevel(), 1e-6, "fuel of " + id);
+            if (v instanceof CargoCarrier c) {
+                double cargo = l.initialCargo + l.loaded.sum() - l.unloaded.sum();
+                assertEquals(cargo, c.getCurrentCargo(), 0, "cargo of " + id);
+            }
+        }
+        // the running report totals must still match a recount after all that
+        assertDoesNotThrow(fm::generateReport);
+    }
+
+    // renames and speed changes fire their callbacks under the vehicle lock while another thread reorders
+    // the fleet under the registry lock. must not deadlock, and the model and speed indexes must end up
+    // matching the vehicles
+    @Test
+    void renamesAndReordersKeepIndexesConsistent() {
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            FleetManager fm = new FleetManager(true);
+            List<Vehicle> vehicles = new ArrayList<>();
+            for (int i = 0; i < VEHICLES; i++) {
+                Vehicle v = vehicle(i);
+                fm.addVehicle(v);
+                vehicles.add(v);
+            }
+
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS - 1; t++) {
+                long seed = t;
+                workers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int op = 0; op < OPS_PER_THREAD / 10; op++) {
+                        Vehicle v = vehicles.get(random.nextInt(vehicles.size()));
+                        switch (random.nextInt(3)) {
+                            case 0 -> v.setModel("M" + random.nextInt(8));
+                            case 1 -> v.setMaxSpeed(10 + random.nextInt(1000));
+                            default -> {
+                                if (v instanceof CargoCarrier c) {
+                                    synchronized (v) {
+                                        if (c.getCurrentCargo() >= 1)
+                                            c.unloadCargo(1); // changes a truck's efficiency key
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++)
+                    fm.sortFleetByEfficiency();
+                return null;
+            }));
+            start.countDown();
+            try {
+                for (Future<?> w : workers)
+                    w.get();
+            } finally {
+                pool.shutdown();
+            }
+
+            Set<String> models = new HashSet<>();
+            double fastest = 0;
+            for (Vehicle v : vehicles) {
+                models.add(v.getModel());
+                fastest = Math.max(fastest, v.getMaxSpeed());
+            }
+            assertEquals(models, fm.getDistinctModels());
+            assertEquals(fastest, fm.getFastestVehicle().getMaxSpeed());
+            assertEquals(VEHICLES, fm.getFleet().size());
+        });
+    }
+
+    // one random operation. the move reads the fuel on both sides under the vehicle lock to learn what
+    // it burned; refuel, load and unload rely on the vehicle's own locking
+    private static void step(Vehicle v, Ledger l, Random random, Queue<String> violations) throws Exception {
+        FuelConsumable f = (FuelConsumable) v;
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                double distance = 1 + random.nextInt(50);
+                double before;
+                double after;
+                synchronized (v) {
+                    before = f.getFuelLevel();
+                    v.move(distance);
+                    after = f.getFuelLevel();
+                }
+                l.consumed.add(before - after);
+            }
+            case 1 -> {
+                double amount = 1 + random.nextInt(20);
+                f.refuel(amount);
+                l.refueled.add(amount);
+            }
+            case 2 -> {
+                if (v instanceof CargoCarrier c) {
+                    double weight = 1 + random.nextInt(500);
+                    try {
+                        c.loadCargo(weight);
+                        l.loaded.add(weight);
+                    } catch (OverloadException e) {
+                        // full, nothing was loaded
+                    }
+                }
+            }
+            default -> {
+                if (v instanceof CargoCarrier c) {
+                    double weight = 1 + random.nextInt(500);
+                    try {
+                        c.unloadCargo(weight);
+                        l.unloaded.add(weight);
+                    } catch (InvalidOperationException e) {
+                        // not that much on board, nothing was unloaded
+                    }
+                }
+            }
+        }
+        check(v, violations);
+    }
+
+    // what every other thread may see at any moment
+    private static void checkFleet(FleetManager fm, Queue<String> violations) {
+        for (Vehicle v : fm.getFleet())
+            check(v, violations);
+    }
+
+    private static void check(Vehicle v, Queue<String> violations) {
+        double fuel = ((FuelConsumable) v).getFuelLevel();
+        if (fuel < 0)
+            violations.add(v.getId() + " fuel " + fuel);
+        if (v instanceof CargoCarrier c) {
+            double cargo = c.getCurrentCargo();
+            if (cargo < 0 || cargo > c.getCargoCapacity())
+                violations.add(v.getId() + " cargo " + cargo + " of " + c.getCargoCapacity());
+        }
+    }
+
+    private static Vehicle vehicle(int i) throws InvalidOperationException {
+        String id = "V" + i;
+        return switch (i % 5) {
+            case 0 -> new Car(id, "Honda", 150, 0, 4, 40, 5, 0);
+            case 1 -> new Truck(id, "Volvo", 100, 0, 6, 200, 5000, 1000);
+            case 2 -> new Bus(id, "Scania", 90, 0, 6, 150, 50, 0, 500, 100);
+            case 3 -> new Airplane(id, "Boeing", 850, 0, 11000, 5000, 200, 0, 10000, 2000);
+            default -> new CargoShip(id, "Maersk", 40, 0, false, 50000, 10000, 1000);
+        };
+    }
+}